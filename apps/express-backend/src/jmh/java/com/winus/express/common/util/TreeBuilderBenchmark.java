@@ -0,0 +1,112 @@
+package com.winus.express.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * TreeBuilder against the recursive, entity-mutating builder it replaced, on a balanced tree with
+ * fan-out 10. {@code order} is how the rows arrive: {@code global} sorted by SORT_NO over the whole
+ * input (what the repository queries return), {@code parent} sorted only among siblings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TreeBuilderBenchmark {
+
+    private static final int FAN_OUT = 10;
+
+    @Param({"10000", "50000", "200000"})
+    public int nodes;
+
+    @Param({"global", "parent"})
+    public String order;
+
+    private List<Row> rows;
+
+    @Setup
+    public void setUp() {
+        // Breadth-first ids, so siblings are adjacent and in SORT_NO order
+        List<Row> generated = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            String parentId = i < FAN_OUT ? TreeBuilder.ROOT_ID : "m" + (i / FAN_OUT - 1);
+            generated.add(new Row("m" + i, parentId, i % FAN_OUT));
+        }
+        if ("global".equals(order)) {
+            generated.sort(Comparator.comparingInt(Row::sortNo));
+        }
+        rows = generated;
+    }
+
+    @Benchmark
+    public List<Node> treeBuilder() {
+        return TreeBuilder.build(rows, Row::id, Row::parentId, Row::sortNo, Node::new);
+    }
+
+    @Benchmark
+    public List<Row> recursiveBuilder() {
+        Map<String, List<Row>> byParent = rows.stream()
+            .collect(Collectors.groupingBy(row -> row.parentId() != null ? row.parentId() : TreeBuilder.ROOT_ID));
+        List<Row> roots = byParent.getOrDefault(TreeBuilder.ROOT_ID, new ArrayList<>());
+        for (Row root : roots) {
+            attachChildren(root, byParent);
+        }
+        roots.sort(Comparator.comparing(Row::sortNo));
+        return roots;
+    }
+
+    private static void attachChildren(Row parent, Map<String, List<Row>> byParent) {
+        List<Row> children = byParent.get(parent.id());
+        if (children != null && !children.isEmpty()) {
+            children.sort(Comparator.comparing(Row::sortNo));
+            parent.children = children;
+            for (Row child : children) {
+                attachChildren(child, byParent);
+            }
+        }
+    }
+
+    /**
+     * Stands in for a Menu row; the recursive builder sets children on it like it did on the entity
+     */
+    public static final class Row {
+
+        private final String id;
+        private final String parentId;
+        private final Integer sortNo;
+        private List<Row> children;
+
+        Row(String id, String parentId, Integer sortNo) {
+            this.id = id;
+            this.parentId = parentId;
+            this.sortNo = sortNo;
+        }
+
+        String id() {
+            return id;
+        }
+
+        String parentId() {
+            return parentId;
+        }
+
+        Integer sortNo() {
+            return sortNo;
+        }
+    }
+
+    public record Node(Row row, List<Node> children) {
+    }
+}
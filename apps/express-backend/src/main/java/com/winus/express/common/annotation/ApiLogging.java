@@ -40,6 +40,12 @@ public @interface ApiLogging {
      */
     boolean logParameters() default true;
 
+    /**
+     * 샘플링 비율 (0.0 ~ 1.0, 음수면 app.logging.api.sampling.default-rate 사용)
+     * 에러와 느린 요청은 비율과 관계없이 항상 로깅됩니다.
+     */
+    double sampleRate() default -1;
+
     /**
      * 로깅 레벨 열거형
      */
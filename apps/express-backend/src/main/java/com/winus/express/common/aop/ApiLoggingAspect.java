@@ -1,7 +1,16 @@
 package com.winus.express.common.aop;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.winus.express.common.annotation.ApiLogging;
 import com.winus.express.common.annotation.NoApiLogging;
+import com.winus.express.common.config.ApiLoggingProperties;
+import com.winus.express.common.logging.ApiLogEvent;
+import com.winus.express.common.logging.ApiLogSampler;
+import com.winus.express.common.logging.ApiLogWriter;
+import com.winus.express.common.logging.ApiLoggingPlan;
+import com.winus.express.common.logging.TruncatingWriter;
+import com.winus.express.common.util.RequestUtils;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,15 +19,22 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * API 요청/응답 로깅 AOP
@@ -31,6 +47,24 @@ import java.util.Map;
 public class ApiLoggingAspect {
 
     private final ObjectMapper objectMapper;
+    private final ApiLogWriter logWriter;
+    private final ApiLogSampler sampler;
+    private final ApiLoggingProperties properties;
+
+    /**
+     * 핸들러 메소드별 로깅 계획 (어노테이션은 메소드당 한 번만 해석)
+     */
+    private final Map<Method, ApiLoggingPlan> plans = new ConcurrentHashMap<>();
+    private Set<String> redactedHeaders;
+    private Map<String, Double> endpointSampleRates;
+
+    @PostConstruct
+    void init() {
+        redactedHeaders = properties.getRedactedHeaders().stream()
+            .map(String::toLowerCase)
+            .collect(Collectors.toUnmodifiableSet());
+        endpointSampleRates = Map.copyOf(properties.getSampling().getEndpoints());
+    }
 
     /**
      * 모든 컨트롤러 패키지의 메소드를 포인트컷으로 지정
@@ -53,11 +87,13 @@ public class ApiLoggingAspect {
 
     /**
      * API 요청/응답 로깅
+     * 요청 스레드에서는 이벤트만 수집하고, 포맷팅과 출력은 {@link ApiLogWriter}가 백그라운드에서 처리합니다.
+     * 샘플링 여부는 호출 시작 시 결정하며, 제외된 호출도 예외, 4xx/5xx 응답이거나 느리면 로깅합니다.
      */
     @Around("restControllerMethods() && requestMappingMethods()")
     public Object logApiCall(ProceedingJoinPoint joinPoint) throws Throwable {
-        // @NoApiLogging 어노테이션 체크
-        if (isNoLogging(joinPoint)) {
+        ApiLoggingPlan plan = planFor(joinPoint);
+        if (!plan.enabled()) {
             return joinPoint.proceed();
         }
 
@@ -68,155 +104,154 @@ public class ApiLoggingAspect {
         }
 
         HttpServletRequest request = attributes.getRequest();
+        boolean sampled = sampler.sample(plan);
         long startTime = System.currentTimeMillis();
 
-        // 요청 정보 로깅
-        logRequest(request, joinPoint);
-
         try {
             // 실제 메소드 실행
             Object result = joinPoint.proceed();
 
-            // 응답 정보 로깅
-            logResponse(request, result, System.currentTimeMillis() - startTime);
+            // 응답 정보 로깅 (4xx/5xx 응답은 에러로 취급)
+            int status = statusOf(result);
+            if (sampler.admit(sampled, status >= 400, System.currentTimeMillis() - startTime)) {
+                logWriter.submit(captureEvent(plan, request, joinPoint, startTime, result, status, null));
+            }
 
             return result;
         } catch (Exception e) {
-            // 에러 정보 로깅
-            logError(request, e, System.currentTimeMillis() - startTime);
+            // 에러 정보 로깅 (샘플링/속도 제한과 무관하게 항상)
+            sampler.force(sampled);
+            logWriter.submit(captureEvent(plan, request, joinPoint, startTime, null, 0, e));
             throw e;
         }
     }
 
     /**
-     * 요청 정보 로깅
+     * 요청/응답 정보 수집 (로깅 계획에 포함된 항목만)
      */
-    private void logRequest(HttpServletRequest request, ProceedingJoinPoint joinPoint) {
-        try {
-            Map<String, Object> requestInfo = new HashMap<>();
-            requestInfo.put("method", request.getMethod());
-            requestInfo.put("uri", request.getRequestURI());
-            requestInfo.put("queryString", request.getQueryString());
-            requestInfo.put("remoteAddr", getClientIpAddress(request));
-            requestInfo.put("userAgent", request.getHeader("User-Agent"));
-            requestInfo.put("controller", joinPoint.getSignature().getDeclaringTypeName());
-            requestInfo.put("methodName", joinPoint.getSignature().getName());
-
-            // 헤더 정보 (민감한 정보는 제외)
-            Map<String, String> headers = new HashMap<>();
-            Enumeration<String> headerNames = request.getHeaderNames();
-            while (headerNames.hasMoreElements()) {
-                String headerName = headerNames.nextElement();
-                if (!headerName.equalsIgnoreCase("Authorization") &&
-                    !headerName.equalsIgnoreCase("Cookie")) {
-                    headers.put(headerName, request.getHeader(headerName));
+    private ApiLogEvent captureEvent(ApiLoggingPlan plan, HttpServletRequest request, ProceedingJoinPoint joinPoint,
+                                     long startTime, Object result, int status, Exception error) {
+        long executionTime = plan.captureExecutionTime() ? System.currentTimeMillis() - startTime : -1;
+
+        Object body = result instanceof ResponseEntity<?> responseEntity ? responseEntity.getBody() : result;
+
+        String bodyText = null;
+        boolean bodyTruncated = false;
+        if (body != null && plan.captureResponse()) {
+            TruncatingWriter writer = new TruncatingWriter(properties.getMaxBodyLength());
+            try {
+                objectMapper.writeValue(writer, body);
+            } catch (IOException e) {
+                if (!writer.isTruncated()) {
+                    writer.appendCapped("<unserializable: " + e.getClass().getSimpleName() + ">");
                 }
             }
-            requestInfo.put("headers", headers);
+            bodyText = writer.toString();
+            bodyTruncated = writer.isTruncated();
+        }
 
-            // 요청 파라미터
-            if (joinPoint.getArgs() != null && joinPoint.getArgs().length > 0) {
-                requestInfo.put("parameters", Arrays.toString(joinPoint.getArgs()));
-            }
+        return new ApiLogEvent(
+            startTime,
+            request.getMethod(),
+            request.getRequestURI(),
+            plan.captureRequest() ? request.getQueryString() : null,
+            RequestUtils.getClientIp(request),
+            plan.captureRequest() ? request.getHeader("User-Agent") : null,
+            plan.handler(),
+            plan.captureHeaders() ? captureHeaders(plan, request) : null,
+            plan.captureParameters() ? captureParameters(plan, joinPoint.getArgs()) : null,
+            status,
+            executionTime,
+            bodyText,
+            bodyTruncated,
+            error
+        );
+    }
 
-            log.info("========== API Request ==========");
-            log.info("Request Info: {}", objectMapper.writeValueAsString(requestInfo));
-        } catch (Exception e) {
-            log.error("Error logging request: ", e);
+    /**
+     * 응답 상태 코드 (ResponseEntity가 아니면 0)
+     */
+    private static int statusOf(Object result) {
+        return result instanceof ResponseEntity<?> responseEntity ? responseEntity.getStatusCode().value() : 0;
+    }
+
+    /**
+     * 헤더 정보 (민감한 헤더는 값을 마스킹)
+     */
+    private String[] captureHeaders(ApiLoggingPlan plan, HttpServletRequest request) {
+        List<String> headers = new ArrayList<>();
+        Enumeration<String> headerNames = request.getHeaderNames();
+        while (headerNames.hasMoreElements()) {
+            String headerName = headerNames.nextElement();
+            headers.add(headerName);
+            headers.add(plan.isRedacted(headerName) ? ApiLoggingPlan.REDACTED : request.getHeader(headerName));
         }
+        return headers.toArray(String[]::new);
     }
 
     /**
-     * 응답 정보 로깅
+     * 요청 파라미터 (서블릿 객체/인증 정보 제외, 길이 제한)
      */
-    private void logResponse(HttpServletRequest request, Object result, long executionTime) {
-        try {
-            Map<String, Object> responseInfo = new HashMap<>();
-            responseInfo.put("uri", request.getRequestURI());
-            responseInfo.put("method", request.getMethod());
-            responseInfo.put("executionTime", executionTime + "ms");
-            responseInfo.put("status", "SUCCESS");
-
-            // 응답 데이터 (너무 크지 않은 경우에만)
-            if (result != null) {
-                String resultStr = objectMapper.writeValueAsString(result);
-                if (resultStr.length() <= 1000) {
-                    responseInfo.put("response", result);
-                } else {
-                    responseInfo.put("response", "Response too large to log (size: " + resultStr.length() + ")");
-                }
+    private String captureParameters(ApiLoggingPlan plan, Object[] args) {
+        boolean[] loggable = plan.loggableArguments();
+        TruncatingWriter writer = new TruncatingWriter(properties.getMaxParametersLength());
+        writer.appendCapped("[");
+        for (int i = 0; i < args.length && !writer.isTruncated(); i++) {
+            if (i > 0) {
+                writer.appendCapped(", ");
+            }
+            Object arg = args[i];
+            if (arg != null && i < loggable.length && !loggable[i]) {
+                writer.appendCapped(arg.getClass().getSimpleName());
+            } else {
+                writer.appendCapped(String.valueOf(arg));
             }
-
-            log.info("========== API Response ==========");
-            log.info("Response Info: {}", objectMapper.writeValueAsString(responseInfo));
-        } catch (Exception e) {
-            log.error("Error logging response: ", e);
         }
+        return writer.appendCapped("]").toString();
     }
 
     /**
-     * 에러 정보 로깅
+     * 로깅 계획 조회 (최초 호출 시 한 번만 생성)
      */
-    private void logError(HttpServletRequest request, Exception exception, long executionTime) {
-        try {
-            Map<String, Object> errorInfo = new HashMap<>();
-            errorInfo.put("uri", request.getRequestURI());
-            errorInfo.put("method", request.getMethod());
-            errorInfo.put("executionTime", executionTime + "ms");
-            errorInfo.put("status", "ERROR");
-            errorInfo.put("errorMessage", exception.getMessage());
-            errorInfo.put("errorType", exception.getClass().getSimpleName());
-
-            log.error("========== API Error ==========");
-            log.error("Error Info: {}", objectMapper.writeValueAsString(errorInfo));
-            log.error("Stack Trace: ", exception);
-        } catch (Exception e) {
-            log.error("Error logging error: ", e);
+    private ApiLoggingPlan planFor(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ApiLoggingPlan plan = plans.get(method);
+        if (plan == null) {
+            plan = plans.computeIfAbsent(method, m -> resolvePlan(m, ClassUtils.getUserClass(joinPoint.getTarget())));
         }
+        return plan;
     }
 
     /**
-     * 클라이언트 IP 주소 가져오기
+     * 어노테이션 해석: 메소드 > 클래스 순으로 적용, @NoApiLogging이 있으면 비활성화
      */
-    private String getClientIpAddress(HttpServletRequest request) {
-        String[] headers = {
-            "X-Forwarded-For",
-            "Proxy-Client-IP",
-            "WL-Proxy-Client-IP",
-            "HTTP_X_FORWARDED_FOR",
-            "HTTP_X_FORWARDED",
-            "HTTP_X_CLUSTER_CLIENT_IP",
-            "HTTP_CLIENT_IP",
-            "HTTP_FORWARDED_FOR",
-            "HTTP_FORWARDED",
-            "HTTP_VIA",
-            "REMOTE_ADDR"
-        };
-
-        for (String header : headers) {
-            String ip = request.getHeader(header);
-            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
-                return ip.split(",")[0].trim();
-            }
+    private ApiLoggingPlan resolvePlan(Method method, Class<?> targetClass) {
+        String handler = targetClass.getSimpleName() + "." + method.getName();
+
+        if (AnnotatedElementUtils.hasAnnotation(method, NoApiLogging.class)
+            || AnnotatedElementUtils.hasAnnotation(targetClass, NoApiLogging.class)) {
+            return ApiLoggingPlan.disabled(handler);
         }
 
-        return request.getRemoteAddr();
+        ApiLogging logging = AnnotatedElementUtils.findMergedAnnotation(method, ApiLogging.class);
+        if (logging == null) {
+            logging = AnnotatedElementUtils.findMergedAnnotation(targetClass, ApiLogging.class);
+        }
+        return ApiLoggingPlan.of(logging, handler, method.getParameterTypes(), method.getGenericReturnType(),
+            redactedHeaders, resolveSampleRate(handler, logging));
     }
 
     /**
-     * @NoApiLogging 어노테이션 체크
+     * 샘플링 비율: 설정(app.logging.api.sampling.endpoints) > 어노테이션 > 기본값
      */
-    private boolean isNoLogging(ProceedingJoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        Class<?> targetClass = joinPoint.getTarget().getClass();
-
-        // 메소드에 @NoApiLogging이 있는지 체크
-        if (method.isAnnotationPresent(NoApiLogging.class)) {
-            return true;
+    private double resolveSampleRate(String handler, ApiLogging logging) {
+        Double configured = endpointSampleRates.get(handler);
+        if (configured != null) {
+            return configured;
         }
-
-        // 클래스에 @NoApiLogging이 있는지 체크
-        return targetClass.isAnnotationPresent(NoApiLogging.class);
+        if (logging != null && logging.sampleRate() >= 0) {
+            return logging.sampleRate();
+        }
+        return properties.getSampling().getDefaultRate();
     }
-}
\ No newline at end of file
+}
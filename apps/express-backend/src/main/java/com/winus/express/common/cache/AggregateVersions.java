@@ -0,0 +1,131 @@
+package com.winus.express.common.cache;
+
+import com.winus.express.modules.system.department.event.DepartmentChangedEvent;
+import com.winus.express.modules.system.menu.event.MenuChangedEvent;
+import com.winus.express.modules.system.role.event.RoleChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters of the reference data aggregates, bumped after every committed write.
+ * Counters live in Redis so all nodes agree on them; each node mirrors them locally and learns about
+ * bumps over pub/sub, so reading a version is a field access. A write made while Redis is unreachable
+ * is counted in the high bits of this node's versions, so the node still sees a new version that no
+ * shared counter value can collide with. A counter that comes back from Redis below this node's mirror
+ * (the key was lost to a restart, eviction or flush) is written back above the mirror, so a bump always
+ * yields a version no payload has been cached under.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AggregateVersions {
+
+    static final String KEY_PREFIX = "app:aggregate-version:";
+    static final String CHANNEL = "app:aggregate-version";
+
+    private static final int OFFLINE_SHIFT = 40;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SecondLevelCache secondLevelCache;
+
+    private final Map<Aggregate, AtomicLong> shared = new EnumMap<>(Aggregate.class);
+    private final Map<Aggregate, AtomicLong> offline = new EnumMap<>(Aggregate.class);
+
+    public enum Aggregate {
+        MENUS,
+        DEPARTMENTS,
+        ROLES
+    }
+
+    @PostConstruct
+    void init() {
+        for (Aggregate aggregate : Aggregate.values()) {
+            shared.put(aggregate, new AtomicLong());
+            offline.put(aggregate, new AtomicLong());
+        }
+        listenerContainer.addMessageListener(this::onVersionMessage, new ChannelTopic(CHANNEL));
+        try {
+            for (Aggregate aggregate : Aggregate.values()) {
+                String stored = redisTemplate.opsForValue().get(KEY_PREFIX + aggregate.name());
+                if (stored != null) {
+                    advance(aggregate, Long.parseLong(stored));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not load aggregate versions, starting from 0: {}", e.getMessage());
+        }
+    }
+
+    public long current(Aggregate aggregate) {
+        return shared.get(aggregate).get() + (offline.get(aggregate).get() << OFFLINE_SHIFT);
+    }
+
+    public void bump(Aggregate aggregate) {
+        String key = KEY_PREFIX + aggregate.name();
+        try {
+            Long version = redisTemplate.opsForValue().increment(key);
+            if (version != null) {
+                long mirrored = shared.get(aggregate).get();
+                if (version <= mirrored) {
+                    log.warn("Shared {} version restarted at {} below {}, moving it past this node's", aggregate,
+                        version, mirrored);
+                    version = mirrored + 1;
+                    redisTemplate.opsForValue().set(key, Long.toString(version));
+                }
+                advance(aggregate, version);
+                redisTemplate.convertAndSend(CHANNEL, aggregate.name() + ":" + version);
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not bump shared {} version, other nodes keep theirs: {}", aggregate, e.getMessage());
+        }
+        offline.get(aggregate).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        bump(Aggregate.MENUS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        bump(Aggregate.DEPARTMENTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        bump(Aggregate.ROLES);
+    }
+
+    private void onVersionMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            Aggregate aggregate = Aggregate.valueOf(body.substring(0, separator));
+            long version = Long.parseLong(body.substring(separator + 1));
+            // Payloads for the new version must not be built from cached entities of the old one
+            secondLevelCache.evict(SecondLevelCache.Scope.valueOf(aggregate.name()));
+            advance(aggregate, version);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            log.warn("Ignoring malformed aggregate version message: {}", body);
+        }
+    }
+
+    private void advance(Aggregate aggregate, long version) {
+        shared.get(aggregate).accumulateAndGet(version, Math::max);
+    }
+}
@@ -0,0 +1,118 @@
+package com.winus.express.common.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One serialized response body with its precompressed variants.
+ * A variant is null when compressing did not make the body smaller.
+ *
+ * @param version snapshot version the body was serialized from
+ * @param digest  digest of the JSON body the entity tags of all variants derive from
+ */
+public record CachedPayload(long version, String digest, byte[] json, byte[] gzip, byte[] deflate) {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    public static CachedPayload of(long version, byte[] json) {
+        return new CachedPayload(version, ETags.digest(json), json,
+            smallerOrNull(json, gzip(json)), smallerOrNull(json, deflate(json)));
+    }
+
+    /**
+     * Response carrying the smallest variant the client accepts, written as-is without message conversion,
+     * or 304 when the client already holds that variant
+     */
+    public ResponseEntity<byte[]> toResponse(String acceptEncoding, String ifNoneMatch) {
+        String coding = gzip != null && accepts(acceptEncoding, GZIP) ? GZIP
+            : deflate != null && accepts(acceptEncoding, DEFLATE) ? DEFLATE
+            : null;
+        String etag = ETags.tag(digest, coding);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ETags.<byte[]>notModified(etag);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .eTag(etag)
+            .cacheControl(ETags.REVALIDATE);
+        if (coding == null) {
+            return response.body(json);
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, coding).body(GZIP.equals(coding) ? gzip : deflate);
+    }
+
+    /**
+     * Whether the Accept-Encoding header lists the coding (or *) without q=0
+     */
+    static boolean accepts(String acceptEncoding, String coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase(coding) && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static byte[] smallerOrNull(byte[] json, byte[] compressed) {
+        return compressed.length < json.length ? compressed : null;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (OutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream deflate = new DeflaterOutputStream(out, deflater)) {
+            deflate.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+}
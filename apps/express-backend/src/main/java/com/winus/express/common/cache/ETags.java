@@ -0,0 +1,76 @@
+package com.winus.express.common.cache;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Strong entity tags derived from the exact bytes served, and If-None-Match evaluation.
+ * Cached responses must be revalidated on every use ({@code no-cache}) and stay private to the user.
+ */
+public final class ETags {
+
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final int DIGEST_BYTES = 16;
+
+    private ETags() {
+    }
+
+    public static String of(byte[] content) {
+        return tag(digest(content), null);
+    }
+
+    public static String of(Collection<String> values) {
+        return of(String.join("\n", values).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tag of one representation; each content coding gets its own tag for the same digest
+     */
+    public static String tag(String digest, String coding) {
+        return "\"" + digest + (coding != null ? "-" + coding : "") + "\"";
+    }
+
+    /**
+     * URL-safe, truncated SHA-256 of the content
+     */
+    public static String digest(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header matches the tag (weak comparison, as RFC 9110 prescribes for it)
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.winus.express.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serialized, precompressed response bodies of rarely changing payloads, one per key.
+ * An entry is reused while its version matches the caller's current snapshot version, so Jackson and
+ * the compressors run once per change instead of once per request. Callers read the version before
+ * loading the data: a concurrent write then at worst caches newer data under the older version.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayloadCache {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CachedPayload> payloads = new ConcurrentHashMap<>();
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    void init() {
+        hitCounter = lookupCounter("hit");
+        missCounter = lookupCounter("miss");
+    }
+
+    public CachedPayload get(String key, long version, Supplier<?> body) {
+        CachedPayload payload = payloads.get(key);
+        if (payload != null && payload.version() == version) {
+            hitCounter.increment();
+            return payload;
+        }
+
+        // Compressing a large tree takes a while; one miss builds it while the others wait for the result
+        synchronized (this) {
+            payload = payloads.get(key);
+            if (payload != null && payload.version() >= version) {
+                hitCounter.increment();
+                return payload;
+            }
+            missCounter.increment();
+            try {
+                payload = CachedPayload.of(version, objectMapper.writeValueAsBytes(body.get()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize payload " + key, e);
+            }
+            payloads.put(key, payload);
+            return payload;
+        }
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("payload.cache.lookup")
+            .description("Cached response payload lookups")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
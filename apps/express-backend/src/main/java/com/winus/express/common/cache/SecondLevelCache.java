@@ -0,0 +1,187 @@
+package com.winus.express.common.cache;
+
+import com.winus.express.modules.system.department.event.DepartmentChangedEvent;
+import com.winus.express.modules.system.menu.event.MenuChangedEvent;
+import com.winus.express.modules.system.role.event.RoleChangedEvent;
+import com.winus.express.security.event.UserSecurityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cross-node invalidation of the Hibernate second-level cache regions of the reference entities.
+ * Hibernate keeps this node's regions consistent with its own writes; other nodes only learn about a
+ * committed change from the broadcast and then drop the affected regions and all cached query results.
+ * Components that rebuild in-memory state from these entities on a remote change notification call
+ * {@link #evict} first, since that notification may arrive before this one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCache {
+
+    public static final String MENU_REGION = "menu";
+    public static final String ROLE_REGION = "role";
+    public static final String DEPARTMENT_REGION = "department";
+    public static final String ROLE_MENUS_REGION = "role.menus";
+
+    public static final List<String> DATA_REGIONS = List.of(MENU_REGION, ROLE_REGION, DEPARTMENT_REGION, ROLE_MENUS_REGION);
+
+    static final String CHANNEL = "app:second-level-cache:evict";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<Scope, Counter> evictionCounters = new EnumMap<>(Scope.class);
+
+    private SessionFactoryImplementor sessionFactory;
+    private boolean cacheEnabled;
+
+    /**
+     * What a change invalidates: regions, and whether cached query results can be affected
+     */
+    public enum Scope {
+        MENUS(true, MENU_REGION),
+        DEPARTMENTS(true, DEPARTMENT_REGION),
+        ROLES(true, ROLE_REGION),
+        ROLE_MENUS(false, ROLE_MENUS_REGION);
+
+        private final boolean queries;
+        private final List<String> regions;
+
+        Scope(boolean queries, String... regions) {
+            this.queries = queries;
+            this.regions = List.of(regions);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        cacheEnabled = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+        for (Scope scope : Scope.values()) {
+            evictionCounters.put(scope, Counter.builder("hibernate.cache.remote.evictions")
+                .description("Second-level cache evictions for changes made on other nodes")
+                .tag("scope", scope.name().toLowerCase())
+                .register(meterRegistry));
+        }
+        for (String region : DATA_REGIONS) {
+            hitRatioGauge(region);
+        }
+        hitRatioGauge(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+        listenerContainer.addMessageListener(this::onEvictMessage, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Drop this node's cached state for the scopes
+     */
+    public void evict(Scope... scopes) {
+        if (!cacheEnabled) {
+            return;
+        }
+        org.hibernate.Cache cache = sessionFactory.getCache();
+        boolean queries = false;
+        for (Scope scope : scopes) {
+            scope.regions.forEach(cache::evictRegion);
+            queries |= scope.queries;
+        }
+        if (queries) {
+            cache.evictQueryRegions();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        broadcast(Scope.MENUS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentChanged(DepartmentChangedEvent event) {
+        broadcast(Scope.DEPARTMENTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleChanged(RoleChangedEvent event) {
+        broadcast(Scope.ROLES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (event.reason() == UserSecurityChangedEvent.Reason.ROLE_MENUS_CHANGED) {
+            broadcast(Scope.ROLE_MENUS);
+        }
+    }
+
+    private void broadcast(Scope scope) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + ":" + scope.name());
+        } catch (DataAccessException e) {
+            log.warn("Could not broadcast {} cache eviction, other nodes serve cached entries until they expire: {}",
+                scope, e.getMessage());
+        }
+    }
+
+    private void onEvictMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        try {
+            Scope scope = Scope.valueOf(body.substring(separator + 1));
+            evict(scope);
+            evictionCounters.get(scope).increment();
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed cache eviction message: {}", body);
+        }
+    }
+
+    private void hitRatioGauge(String region) {
+        Gauge.builder("hibernate.cache.hit.ratio", this, cache -> cache.hitRatio(region))
+            .description("Second-level cache hit ratio since startup")
+            .tag("region", region)
+            .register(meterRegistry);
+    }
+
+    private double hitRatio(String region) {
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return Double.NaN;
+        }
+        try {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                return Double.NaN;
+            }
+            long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+            return lookups == 0 ? Double.NaN : regionStatistics.getHitCount() / (double) lookups;
+        } catch (IllegalArgumentException e) {
+            // Region not created (second-level cache disabled)
+            return Double.NaN;
+        }
+    }
+}
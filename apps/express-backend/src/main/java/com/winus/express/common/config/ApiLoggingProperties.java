@@ -0,0 +1,82 @@
+package com.winus.express.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API request/response logging properties (app.logging.api)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.logging.api")
+public class ApiLoggingProperties {
+
+    /**
+     * Capacity of the buffer between request threads and the log writer
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * What to discard when the buffer is full
+     */
+    private DropPolicy dropPolicy = DropPolicy.DROP_NEWEST;
+
+    /**
+     * Response body characters captured per call; serialization stops once reached
+     */
+    private int maxBodyLength = 1000;
+
+    /**
+     * Parameter characters captured per call
+     */
+    private int maxParametersLength = 1000;
+
+    /**
+     * Request headers logged with a masked value (case-insensitive)
+     */
+    private List<String> redactedHeaders = new ArrayList<>(List.of("Authorization", "Proxy-Authorization", "Cookie"));
+
+    private Sampling sampling = new Sampling();
+
+    @Data
+    public static class Sampling {
+
+        /**
+         * Fraction of calls logged when neither config nor {@code @ApiLogging(sampleRate)} sets one
+         */
+        private double defaultRate = 1.0;
+
+        /**
+         * Per-endpoint rates keyed by handler ("MenuController.getUserMenus"); override the annotation
+         */
+        private Map<String, Double> endpoints = new HashMap<>();
+
+        /**
+         * Cap on sampled log lines per second across all endpoints; 0 disables the cap
+         */
+        private int maxLinesPerSecond = 0;
+
+        /**
+         * Calls at least this slow are always logged, like errors
+         */
+        private Duration slowThreshold = Duration.ofSeconds(1);
+    }
+
+    public enum DropPolicy {
+        /**
+         * Keep what is buffered and discard the new event
+         */
+        DROP_NEWEST,
+        /**
+         * Discard the oldest buffered event to make room for the new one
+         */
+        DROP_OLDEST
+    }
+}
@@ -0,0 +1,13 @@
+package com.winus.express.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Async Configuration
+ * {@code @Async} methods run on Spring Boot's application task executor (spring.task.execution)
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,19 @@
+package com.winus.express.common.config;
+
+import com.winus.express.common.id.IdGenerator;
+import com.winus.express.common.id.NodeIdLease;
+import com.winus.express.common.id.SnowflakeIdGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Primary key generator configuration
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(IdGeneratorProperties properties, NodeIdLease nodeIdLease) {
+        return new SnowflakeIdGenerator(properties.getEpoch().toEpochMilli(), nodeIdLease::nodeId);
+    }
+}
@@ -0,0 +1,32 @@
+package com.winus.express.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Primary key generator properties (app.id)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.id")
+public class IdGeneratorProperties {
+
+    /**
+     * Fixed node id (0-1023); when unset each node leases a free one from Redis
+     */
+    private Integer nodeId;
+
+    /**
+     * Start of the id timestamp range; ids stay ordered for 69 years after it. Never change it once ids exist.
+     */
+    private Instant epoch = Instant.parse("2025-01-01T00:00:00Z");
+
+    /**
+     * Lifetime of a leased node id; the lease is renewed at a third of it
+     */
+    private Duration nodeLeaseTtl = Duration.ofMinutes(5);
+}
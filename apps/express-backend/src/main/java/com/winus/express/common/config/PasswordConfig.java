@@ -1,10 +1,15 @@
 package com.winus.express.common.config;
 
+import com.winus.express.security.password.BoundedPasswordEncoder;
+import com.winus.express.security.password.CostAwareBCryptPasswordEncoder;
+import com.winus.express.security.password.PasswordHashingExecutor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
+
 /**
  * Password Encoder Configuration
  * Separated from SecurityConfig to avoid circular dependencies
@@ -12,8 +17,17 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class PasswordConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
+    /**
+     * New hashes are stored as {@code {bcrypt}<hash>}. Hashes without an id prefix (written before it
+     * was introduced) are still matched as BCrypt and are upgraded on the next successful login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+    public BoundedPasswordEncoder passwordEncoder(PasswordProperties properties, PasswordHashingExecutor hashingExecutor) {
+        PasswordEncoder bcrypt = new CostAwareBCryptPasswordEncoder(properties.getEncoderStrength());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, hashingExecutor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.winus.express.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Password hashing properties (app.security.password)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.security.password")
+public class PasswordProperties {
+
+    /**
+     * BCrypt cost factor
+     */
+    private int encoderStrength = 12;
+
+    private Hashing hashing = new Hashing();
+
+    private Calibration calibration = new Calibration();
+
+    @Data
+    public static class Hashing {
+
+        /**
+         * Maximum number of hashes computed concurrently
+         */
+        private int maxConcurrency = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Maximum number of hash requests waiting for a worker
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * Longest a request may wait for a worker before it is rejected
+         */
+        private Duration queueTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Longest a hash may take once it has a worker before the waiting request gives up on it
+         */
+        private Duration hashTimeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Calibration {
+
+        /**
+         * Target hash latency; when set, a recommended cost for this host is logged at startup
+         */
+        private Duration targetLatency;
+
+        /**
+         * Hashes timed per cost step
+         */
+        private int samples = 5;
+    }
+}
@@ -0,0 +1,43 @@
+package com.winus.express.common.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Starts the shared Redis listener container after startup and keeps retrying while Redis is down.
+ * Until it is listening, this node misses other nodes' invalidations, like any other Redis outage;
+ * once subscribed, the container's own recovery handles dropped connections.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisListenerStarter {
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${app.redis.listener-retry-interval:5s}")
+    private Duration retryInterval;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            listenerContainer.start();
+            log.info("Redis listener container subscribed");
+        } catch (RuntimeException e) {
+            // A failed start leaves the container marked running; stop it so the next start subscribes again
+            listenerContainer.stop();
+            log.warn("Could not subscribe to Redis, retrying in {}: {}", retryInterval, e.getMessage());
+            taskScheduler.schedule(this::start, Instant.now().plus(retryInterval));
+        }
+    }
+}
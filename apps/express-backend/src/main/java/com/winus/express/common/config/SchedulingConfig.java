@@ -0,0 +1,12 @@
+package com.winus.express.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,26 @@
+package com.winus.express.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Hibernate second-level cache region properties (app.second-level-cache)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Entries per entity, collection and query region
+     */
+    private long maxEntries = 10_000;
+
+    /**
+     * Upper bound on how long an entry is served; bounds staleness if an invalidation broadcast is lost
+     */
+    private Duration timeToLive = Duration.ofMinutes(30);
+}
@@ -1,12 +1,18 @@
 package com.winus.express.common.config;
 
+import com.winus.express.security.password.PasswordRehashService;
 import com.winus.express.security.provider.JwtAuthenticationEntryPoint;
 import com.winus.express.security.filter.JwtAuthenticationFilter;
+import com.winus.express.security.provider.RehashingAuthenticationProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -16,8 +22,13 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.IpAddressAuthorizationManager;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Spring Security Configuration
  */
@@ -38,10 +49,15 @@ public class SecurityConfig {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordRehashService passwordRehashService;
+
+    @Value("${app.metrics.prometheus.scrape-addresses:127.0.0.1/32,::1/128}")
+    private String[] prometheusScrapeAddresses;
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(userDetailsService);
+        DaoAuthenticationProvider authProvider = new RehashingAuthenticationProvider(userDetailsService, passwordRehashService);
         authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
@@ -58,6 +74,8 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/api/auth/**", "/public/**").permitAll()
                 .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/prometheus").access(prometheusAccess())
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 // System management endpoints - require authentication
                 .requestMatchers("/api/users/**", "/api/roles/**", "/api/menus/**", "/api/departments/**").authenticated()
@@ -73,4 +91,20 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    /**
+     * Scrapers are let in by client address (resolved through server.forward-headers-strategy), anyone else
+     * needs an ADMIN token: the metrics carry role tags, login outcomes and SQL statistics
+     */
+    @SuppressWarnings("unchecked")
+    private AuthorizationManager<RequestAuthorizationContext> prometheusAccess() {
+        List<AuthorizationManager<RequestAuthorizationContext>> managers = new ArrayList<>();
+        for (String address : prometheusScrapeAddresses) {
+            if (!address.isBlank()) {
+                managers.add(IpAddressAuthorizationManager.hasIpAddress(address.trim()));
+            }
+        }
+        managers.add(AuthorityAuthorizationManager.hasRole("ADMIN"));
+        return AuthorizationManagers.anyOf(managers.toArray(AuthorizationManager[]::new));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.winus.express.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Per-request SQL statement monitoring properties (app.sql.monitor)
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.sql.monitor")
+public class SqlMonitorProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Statements per request above which the request is reported
+     */
+    private int maxStatements = 30;
+
+    /**
+     * Executions of one statement shape per request above which the request is reported as N+1
+     */
+    private int maxRepeats = 5;
+
+    /**
+     * Total JDBC time per request above which the request is reported
+     */
+    private Duration maxJdbcTime = Duration.ofMillis(500);
+
+    /**
+     * Throw instead of logging a warning (for tests)
+     */
+    private boolean failOnViolation = false;
+
+    /**
+     * Add X-Sql-* response headers; buffers the response body, so meant for dev only
+     */
+    private boolean responseHeaders = false;
+
+    /**
+     * Distinct statement shapes tracked per request
+     */
+    private int maxFingerprints = 200;
+
+    private SlowQuery slowQuery = new SlowQuery();
+
+    @Data
+    public static class SlowQuery {
+
+        private boolean enabled = true;
+
+        /**
+         * Statements at least this slow are kept in the journal
+         */
+        private Duration threshold = Duration.ofMillis(200);
+
+        /**
+         * Journal size, rounded up to a power of two; the oldest entries are overwritten
+         */
+        private int capacity = 1024;
+    }
+}
@@ -1,20 +1,30 @@
 package com.winus.express.common.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
 /**
- * Base Entity for common fields
+ * Base Entity for common fields.
+ * Ids are assigned by the application, so Spring Data cannot tell a new entity from its id; an instance
+ * counts as new until it has been loaded or persisted, which lets {@code save} persist (plain, batchable
+ * INSERT) instead of merging (SELECT first).
  */
 @Data
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
-public abstract class BaseEntity {
+public abstract class BaseEntity implements Persistable<String> {
 
     @Column(name = "CREATE_BY", length = 50)
     private String createBy;
@@ -32,4 +42,27 @@ public abstract class BaseEntity {
 
     @Column(name = "REMARK", length = 500)
     private String remark;
-}
\ No newline at end of file
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean stored;
+
+    @Override
+    @JsonIgnore
+    public abstract String getId();
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PrePersist
+    void markStored() {
+        stored = true;
+    }
+}
@@ -0,0 +1,9 @@
+package com.winus.express.common.id;
+
+/**
+ * Source of primary keys for entities whose id is assigned by the application.
+ */
+public interface IdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,133 @@
+package com.winus.express.common.id;
+
+import com.winus.express.common.config.IdGeneratorProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Node id of this instance for {@link SnowflakeIdGenerator}.
+ * A configured id is used as-is; otherwise the node claims a free slot in Redis with a TTL and keeps
+ * renewing it, so two live nodes never share an id. If the lease is lost (e.g. Redis was flushed or the
+ * node stalled past the TTL) and the slot was taken meanwhile, a new free slot is claimed.
+ * The lease is released on shutdown after the web server has stopped taking requests but before the
+ * Redis connection factory stops, so a restarted node can take the same slot again.
+ */
+@Slf4j
+@Component
+public class NodeIdLease implements SmartLifecycle {
+
+    static final String KEY_PREFIX = "app:id:node:";
+
+    /**
+     * Below the web server's graceful shutdown phase, above the Redis connection factory (phase 0).
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final StringRedisTemplate redisTemplate;
+    private final IdGeneratorProperties properties;
+    private final String owner = UUID.randomUUID().toString();
+    private volatile int nodeId;
+    private volatile boolean running;
+
+    public NodeIdLease(StringRedisTemplate redisTemplate, IdGeneratorProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        if (properties.getNodeId() != null) {
+            if (properties.getNodeId() < 0 || properties.getNodeId() > SnowflakeIdGenerator.MAX_NODE_ID) {
+                throw new IllegalStateException("app.id.node-id must be between 0 and " + SnowflakeIdGenerator.MAX_NODE_ID);
+            }
+            this.nodeId = properties.getNodeId();
+        } else {
+            this.nodeId = claim();
+        }
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "#{@idGeneratorProperties.nodeLeaseTtl.toMillis() / 3}",
+        initialDelayString = "#{@idGeneratorProperties.nodeLeaseTtl.toMillis() / 3}")
+    public void renew() {
+        if (properties.getNodeId() != null || !running) {
+            return;
+        }
+        try {
+            String key = KEY_PREFIX + nodeId;
+            Boolean claimed = redisTemplate.opsForValue().setIfAbsent(key, owner, properties.getNodeLeaseTtl());
+            if (Boolean.TRUE.equals(claimed) || owner.equals(redisTemplate.opsForValue().get(key))) {
+                redisTemplate.expire(key, properties.getNodeLeaseTtl());
+                return;
+            }
+            int previous = nodeId;
+            nodeId = claim();
+            log.warn("Node id {} was leased by another instance, switched to {}", previous, nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Could not renew node id lease {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        release();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    void release() {
+        if (properties.getNodeId() != null) {
+            return;
+        }
+        try {
+            String key = KEY_PREFIX + nodeId;
+            if (owner.equals(redisTemplate.opsForValue().get(key))) {
+                redisTemplate.delete(key);
+                log.info("Released id generator node id {}", nodeId);
+            }
+        } catch (RuntimeException e) {
+            // Also covers a connection factory that is already stopped
+            log.warn("Could not release node id lease {}, it expires on its own: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private int claim() {
+        int slots = SnowflakeIdGenerator.MAX_NODE_ID + 1;
+        int start = ThreadLocalRandom.current().nextInt(slots);
+        try {
+            for (int i = 0; i < slots; i++) {
+                int candidate = (start + i) % slots;
+                if (Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(KEY_PREFIX + candidate, owner, properties.getNodeLeaseTtl()))) {
+                    log.info("Leased id generator node id {}", candidate);
+                    return candidate;
+                }
+            }
+            throw new IllegalStateException("All " + slots + " id generator node ids are leased");
+        } catch (DataAccessException e) {
+            // Without Redis a random id is the best available; collisions need two nodes on the same id and millisecond
+            log.warn("Could not lease a node id, using random id {}: {}", start, e.getMessage());
+            return start;
+        }
+    }
+}
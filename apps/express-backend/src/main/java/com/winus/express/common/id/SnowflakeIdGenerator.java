@@ -0,0 +1,61 @@
+package com.winus.express.common.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since the epoch, 10 bits of node id and a 12-bit
+ * sequence, written as 13 Crockford base32 characters so string order is generation order.
+ * The timestamp and sequence advance together in one atomic word: an id is always greater than the
+ * previous one on this node, a clock moving backwards keeps counting from the last timestamp, and more
+ * than 4096 ids in a millisecond borrow from the next millisecond instead of blocking.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    static final int ENCODED_LENGTH = 13;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long epochMillis;
+    private final IntSupplier nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long epochMillis, IntSupplier nodeId) {
+        this(epochMillis, nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long epochMillis, IntSupplier nodeId, LongSupplier clock) {
+        this.epochMillis = epochMillis;
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return encode(nextLong());
+    }
+
+    long nextLong() {
+        long now = (clock.getAsLong() - epochMillis) << SEQUENCE_BITS;
+        long next = state.accumulateAndGet(now, (previous, candidate) -> Math.max(previous + 1, candidate));
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS))
+            | ((long) (nodeId.getAsInt() & MAX_NODE_ID) << SEQUENCE_BITS)
+            | (next & SEQUENCE_MASK);
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
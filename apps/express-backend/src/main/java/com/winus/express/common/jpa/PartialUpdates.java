@@ -0,0 +1,124 @@
+package com.winus.express.common.jpa;
+
+import com.winus.express.common.dto.BaseEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.Hibernate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Column-targeted updates of versioned entities without loading them.
+ * Each update is one {@code UPDATE ... SET <given columns>, UPDATE_TIME, VERSION = VERSION + 1 WHERE id [AND VERSION]};
+ * null values are skipped, so a DTO can be passed field by field with PATCH semantics. The statement bypasses
+ * the persistence context, so entities already loaded in the same transaction are not refreshed.
+ */
+@Component
+public class PartialUpdates {
+
+    private static final String UPDATE_TIME = "updateTime";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T extends BaseEntity> PartialUpdate<T> of(Class<T> type, String id) {
+        return new PartialUpdate<>(type, id);
+    }
+
+    public final class PartialUpdate<T extends BaseEntity> {
+
+        private final Class<T> type;
+        private final String id;
+        private final CriteriaBuilder builder;
+        private final CriteriaUpdate<T> update;
+        private final Root<T> root;
+        private final String idAttribute;
+        private final String versionAttribute;
+        private Long expectedVersion;
+
+        private PartialUpdate(Class<T> type, String id) {
+            EntityType<T> entity = entityManager.getMetamodel().entity(type);
+            this.type = type;
+            this.id = id;
+            this.builder = entityManager.getCriteriaBuilder();
+            this.update = builder.createCriteriaUpdate(type);
+            this.root = update.from(type);
+            this.idAttribute = entity.getId(String.class).getName();
+            this.versionAttribute = entity.getVersion(Long.class).getName();
+        }
+
+        /**
+         * Set the attribute unless the value is null
+         */
+        public PartialUpdate<T> set(String attribute, Object value) {
+            if (value != null) {
+                update.set(attribute, value);
+            }
+            return this;
+        }
+
+        /**
+         * Apply only if the row is still at this version; null updates whatever version is stored
+         */
+        public PartialUpdate<T> expectVersion(Long version) {
+            this.expectedVersion = version;
+            return this;
+        }
+
+        /**
+         * @return false if no row has the id
+         * @throws ObjectOptimisticLockingFailureException if the row exists at another version than expected
+         */
+        public boolean execute() {
+            update.set(UPDATE_TIME, LocalDateTime.now());
+            update.set(root.<Long>get(versionAttribute), builder.sum(root.<Long>get(versionAttribute), 1L));
+            Predicate where = builder.equal(root.get(idAttribute), id);
+            if (expectedVersion != null) {
+                where = builder.and(where, builder.equal(root.get(versionAttribute), expectedVersion));
+            }
+            update.where(where);
+
+            if (entityManager.createQuery(update).executeUpdate() > 0) {
+                return true;
+            }
+            if (expectedVersion != null && exists()) {
+                throw new ObjectOptimisticLockingFailureException(type, id);
+            }
+            return false;
+        }
+
+        /**
+         * {@link #execute()}, then read the row back for callers that return the updated entity.
+         * An instance already loaded in this transaction is refreshed rather than returned stale.
+         *
+         * @return the updated entity, or empty if no row has the id
+         * @throws ObjectOptimisticLockingFailureException if the row exists at another version than expected
+         */
+        public Optional<T> executeAndReload() {
+            if (!execute()) {
+                return Optional.empty();
+            }
+            T reference = entityManager.getReference(type, id);
+            if (Hibernate.isInitialized(reference)) {
+                entityManager.refresh(reference);
+            }
+            return Optional.of(Hibernate.unproxy(reference, type));
+        }
+
+        private boolean exists() {
+            CriteriaQuery<Long> count = builder.createQuery(Long.class);
+            Root<T> row = count.from(type);
+            count.select(builder.count(row)).where(builder.equal(row.get(idAttribute), id));
+            return entityManager.createQuery(count).getSingleResult() > 0;
+        }
+    }
+}
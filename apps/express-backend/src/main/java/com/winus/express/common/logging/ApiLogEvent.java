@@ -0,0 +1,29 @@
+package com.winus.express.common.logging;
+
+/**
+ * Everything captured about one API call on the request thread.
+ * Formatting and log I/O happen later on the writer thread.
+ *
+ * @param headers flattened name/value pairs, or null when headers are not logged
+ * @param status  HTTP status of a returned {@code ResponseEntity}, or 0 if unknown
+ * @param executionTime handler time in milliseconds, or -1 when not logged
+ */
+public record ApiLogEvent(long timestamp,
+                          String httpMethod,
+                          String uri,
+                          String queryString,
+                          String remoteAddr,
+                          String userAgent,
+                          String handler,
+                          String[] headers,
+                          String parameters,
+                          int status,
+                          long executionTime,
+                          String body,
+                          boolean bodyTruncated,
+                          Throwable error) {
+
+    public boolean isError() {
+        return error != null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.winus.express.common.logging;
+
+import com.winus.express.common.config.ApiLoggingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which API calls are logged.
+ * The sampling decision is made when the call starts, so sampled-out calls capture nothing.
+ * Sampled calls then pass a global token bucket ({@code max-lines-per-second}). Errors (thrown exceptions
+ * and 4xx/5xx responses) and calls slower than {@code slow-threshold} bypass both and are always logged.
+ */
+@Component
+public class ApiLogSampler {
+
+    private final TokenBucket bucket;
+    private final long slowThresholdMillis;
+    private final Counter sampledOutCounter;
+    private final Counter rateLimitedCounter;
+    private final Counter forcedCounter;
+
+    public ApiLogSampler(ApiLoggingProperties properties, MeterRegistry meterRegistry) {
+        ApiLoggingProperties.Sampling sampling = properties.getSampling();
+        this.bucket = sampling.getMaxLinesPerSecond() > 0 ? new TokenBucket(sampling.getMaxLinesPerSecond()) : null;
+        this.slowThresholdMillis = sampling.getSlowThreshold().toMillis();
+        this.sampledOutCounter = decisionCounter(meterRegistry, "sampled_out");
+        this.rateLimitedCounter = decisionCounter(meterRegistry, "rate_limited");
+        this.forcedCounter = decisionCounter(meterRegistry, "forced");
+    }
+
+    /**
+     * Head decision, taken before the handler runs.
+     */
+    public boolean sample(ApiLoggingPlan plan) {
+        double rate = plan.sampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * Final decision once the outcome is known.
+     */
+    public boolean admit(boolean sampled, boolean failed, long elapsedMillis) {
+        if (failed || elapsedMillis >= slowThresholdMillis) {
+            force(sampled);
+            return true;
+        }
+        if (!sampled) {
+            sampledOutCounter.increment();
+            return false;
+        }
+        if (bucket != null && !bucket.tryAcquire()) {
+            rateLimitedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records a call that is logged regardless of sampling and rate limit, such as one that threw.
+     */
+    public void force(boolean sampled) {
+        if (!sampled) {
+            forcedCounter.increment();
+        }
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder("api.log.sampling")
+            .description("API calls skipped by sampling or rate limit, or logged despite being sampled out")
+            .tag("decision", decision)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,173 @@
+package com.winus.express.common.logging;
+
+import com.winus.express.common.config.ApiLoggingProperties;
+import com.winus.express.common.config.ApiLoggingProperties.DropPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer for API log events.
+ * Request threads hand events to a bounded buffer and return immediately; a single daemon
+ * thread formats and writes them. When the buffer is full, events are discarded according to
+ * {@code app.logging.api.drop-policy} and counted in {@code api.log.events{result=dropped}}.
+ */
+@Slf4j
+@Component
+public class ApiLogWriter {
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final BlockingQueue<ApiLogEvent> buffer;
+    private final DropPolicy dropPolicy;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public ApiLogWriter(ApiLoggingProperties properties, MeterRegistry meterRegistry) {
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        this.dropPolicy = properties.getDropPolicy();
+        this.writtenCounter = eventCounter(meterRegistry, "written");
+        this.droppedCounter = eventCounter(meterRegistry, "dropped");
+        Gauge.builder("api.log.buffer.size", buffer, BlockingQueue::size)
+            .description("API log events waiting for the writer")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writerThread = new Thread(this::drainLoop, "api-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(2000);
+        drainRemaining();
+    }
+
+    /**
+     * Queue an event without blocking
+     *
+     * @return false if the event was dropped
+     */
+    public boolean submit(ApiLogEvent event) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        if (dropPolicy == DropPolicy.DROP_OLDEST && buffer.poll() != null) {
+            droppedCounter.increment();
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    private void drainLoop() {
+        List<ApiLogEvent> batch = new ArrayList<>(DRAIN_BATCH);
+        while (running) {
+            try {
+                ApiLogEvent first = buffer.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                write(first);
+                buffer.drainTo(batch, DRAIN_BATCH);
+                batch.forEach(this::write);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write API log event: {}", e.toString());
+            }
+        }
+    }
+
+    private void drainRemaining() {
+        ApiLogEvent event;
+        while ((event = buffer.poll()) != null) {
+            write(event);
+        }
+    }
+
+    private void write(ApiLogEvent event) {
+        String line = format(event);
+        if (event.isError()) {
+            log.error(line, event.error());
+        } else {
+            log.info(line);
+        }
+        writtenCounter.increment();
+    }
+
+    static String format(ApiLogEvent event) {
+        StringBuilder sb = new StringBuilder(256)
+            .append(event.httpMethod()).append(' ').append(event.uri());
+        if (event.queryString() != null) {
+            sb.append('?').append(event.queryString());
+        }
+        sb.append(" -> ");
+        if (event.isError()) {
+            sb.append("ERROR ").append(event.error().getClass().getSimpleName());
+        } else {
+            sb.append(event.status() > 0 ? String.valueOf(event.status()) : "OK");
+        }
+        if (event.executionTime() >= 0) {
+            sb.append(' ').append(event.executionTime()).append("ms");
+        }
+        sb.append(" handler=").append(event.handler())
+            .append(" ip=").append(event.remoteAddr());
+        if (event.userAgent() != null) {
+            sb.append(" ua=\"").append(event.userAgent()).append('"');
+        }
+        if (event.headers() != null) {
+            sb.append(" headers={");
+            String[] headers = event.headers();
+            for (int i = 0; i < headers.length; i += 2) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(headers[i]).append('=').append(headers[i + 1]);
+            }
+            sb.append('}');
+        }
+        if (event.parameters() != null) {
+            sb.append(" params=").append(event.parameters());
+        }
+        if (event.body() != null) {
+            sb.append(" response=").append(event.body());
+            if (event.bodyTruncated()) {
+                sb.append("...(truncated)");
+            }
+        }
+        if (event.isError()) {
+            sb.append(" error=\"").append(event.error().getMessage()).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("api.log.events")
+            .description("API log events by outcome")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,95 @@
+package com.winus.express.common.logging;
+
+import com.winus.express.common.annotation.ApiLogging;
+import com.winus.express.common.annotation.ApiLogging.LogLevel;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.springframework.http.HttpEntity;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * What to capture for one handler method, resolved once from {@link ApiLogging} / {@code @NoApiLogging}.
+ *
+ * @param handler            "Controller.method" label
+ * @param captureRequest     query string, user agent and parameters
+ * @param captureHeaders     request headers (HEADERS level and above)
+ * @param captureParameters  handler arguments (FULL level only)
+ * @param captureResponse    response body (FULL level only, never for binary bodies)
+ * @param loggableArguments  per argument index, false for servlet objects and principals
+ * @param redactedHeaders    lower-case header names whose values are masked
+ * @param sampleRate         fraction of calls logged (errors and slow calls are always logged)
+ */
+public record ApiLoggingPlan(boolean enabled,
+                             String handler,
+                             boolean captureRequest,
+                             boolean captureHeaders,
+                             boolean captureParameters,
+                             boolean captureResponse,
+                             boolean captureExecutionTime,
+                             boolean[] loggableArguments,
+                             Set<String> redactedHeaders,
+                             double sampleRate) {
+
+    public static final String REDACTED = "***";
+
+    public static ApiLoggingPlan disabled(String handler) {
+        return new ApiLoggingPlan(false, handler, false, false, false, false, false, new boolean[0], Set.of(), 0.0);
+    }
+
+    /**
+     * @param logging    the effective annotation, or null for the default (FULL, everything on)
+     * @param returnType the handler's generic return type
+     * @param sampleRate the resolved rate; configuration and annotation precedence is up to the caller
+     */
+    public static ApiLoggingPlan of(ApiLogging logging, String handler, Class<?>[] parameterTypes, Type returnType,
+                                    Set<String> redactedHeaders, double sampleRate) {
+        LogLevel level = logging != null ? logging.level() : LogLevel.FULL;
+        boolean logRequest = logging == null || logging.logRequest();
+        boolean logResponse = logging == null || logging.logResponse();
+
+        boolean[] loggableArguments = new boolean[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            loggableArguments[i] = !isInfrastructure(parameterTypes[i]);
+        }
+
+        return new ApiLoggingPlan(
+            true,
+            handler,
+            logRequest,
+            logRequest && level != LogLevel.BASIC && (logging == null || logging.logHeaders()),
+            logRequest && level == LogLevel.FULL && (logging == null || logging.logParameters())
+                && parameterTypes.length > 0,
+            logResponse && level == LogLevel.FULL && !isBinary(returnType),
+            logging == null || logging.logExecutionTime(),
+            loggableArguments,
+            redactedHeaders,
+            sampleRate
+        );
+    }
+
+    public boolean isRedacted(String headerName) {
+        return redactedHeaders.contains(headerName.toLowerCase());
+    }
+
+    /**
+     * {@code byte[]} bodies (e.g. precompressed payloads) would only be logged as base64
+     */
+    private static boolean isBinary(Type returnType) {
+        Type body = returnType;
+        if (returnType instanceof ParameterizedType parameterized
+            && parameterized.getRawType() instanceof Class<?> raw && HttpEntity.class.isAssignableFrom(raw)) {
+            body = parameterized.getActualTypeArguments()[0];
+        }
+        return body == byte[].class;
+    }
+
+    private static boolean isInfrastructure(Class<?> type) {
+        return ServletRequest.class.isAssignableFrom(type)
+            || ServletResponse.class.isAssignableFrom(type)
+            || Principal.class.isAssignableFrom(type);
+    }
+}
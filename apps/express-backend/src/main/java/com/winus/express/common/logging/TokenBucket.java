@@ -0,0 +1,43 @@
+package com.winus.express.common.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding up to {@code permitsPerSecond} tokens, refilled continuously.
+ * Tracks the time at which the bucket would be full again instead of a token count, so a
+ * permit costs one CAS.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int permitsPerSecond) {
+        this(permitsPerSecond, System.nanoTime());
+    }
+
+    TokenBucket(int permitsPerSecond, long nowNanos) {
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burstNanos = intervalNanos * permitsPerSecond;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+}
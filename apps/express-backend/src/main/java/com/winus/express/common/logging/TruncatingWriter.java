@@ -0,0 +1,87 @@
+package com.winus.express.common.logging;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer that keeps at most {@code limit} characters and fails the write that goes past it,
+ * so a serializer writing into it stops instead of rendering the rest of the object.
+ */
+public final class TruncatingWriter extends Writer {
+
+    private static final IOException LIMIT_REACHED = new LimitReachedException();
+
+    private final StringBuilder buffer;
+    private final int limit;
+    private boolean truncated;
+
+    public TruncatingWriter(int limit) {
+        this.limit = limit;
+        this.buffer = new StringBuilder(Math.min(limit, 256));
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        int accepted = accept(length);
+        buffer.append(chars, offset, accepted);
+        if (accepted < length) {
+            throw LIMIT_REACHED;
+        }
+    }
+
+    @Override
+    public void write(String str, int offset, int length) throws IOException {
+        int accepted = accept(length);
+        buffer.append(str, offset, offset + accepted);
+        if (accepted < length) {
+            throw LIMIT_REACHED;
+        }
+    }
+
+    /**
+     * Append text, silently cutting it at the limit
+     */
+    public TruncatingWriter appendCapped(String text) {
+        int accepted = accept(text.length());
+        buffer.append(text, 0, accepted);
+        return this;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    private int accept(int length) {
+        int remaining = Math.max(limit - buffer.length(), 0);
+        if (length > remaining) {
+            truncated = true;
+            return remaining;
+        }
+        return length;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+
+    private static final class LimitReachedException extends IOException {
+
+        LimitReachedException() {
+            super("Log capture limit reached");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.winus.express.common.metrics;
+
+import com.winus.express.common.util.JwtUtil;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Adds a {@code role} tag to {@code http.server.requests} on top of uri, method, status and outcome.
+ * The observation stops after the security context has been cleared, so the authenticating filter
+ * leaves the caller's authorities in the {@link #AUTHORITIES_ATTRIBUTE} request attribute.
+ * To keep cardinality bounded only roles listed in {@code app.metrics.http.roles} are reported,
+ * the first one the caller holds wins; other callers are tagged {@code other} or {@code anonymous}.
+ */
+@Component
+public class HttpServerMetricsConvention extends DefaultServerRequestObservationConvention {
+
+    public static final String AUTHORITIES_ATTRIBUTE = HttpServerMetricsConvention.class.getName() + ".authorities";
+
+    private static final String ROLE_KEY = "role";
+    private static final KeyValue ANONYMOUS = KeyValue.of(ROLE_KEY, "anonymous");
+    private static final KeyValue OTHER = KeyValue.of(ROLE_KEY, "other");
+
+    private final List<String> trackedAuthorities;
+    private final List<KeyValue> trackedKeyValues;
+
+    public HttpServerMetricsConvention(@Value("${app.metrics.http.roles:ADMIN}") List<String> roles) {
+        this.trackedAuthorities = roles.stream().map(role -> JwtUtil.ROLE_PREFIX + role).toList();
+        this.trackedKeyValues = roles.stream().map(role -> KeyValue.of(ROLE_KEY, role)).toList();
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(role(context));
+    }
+
+    private KeyValue role(ServerRequestObservationContext context) {
+        if (!(context.getCarrier().getAttribute(AUTHORITIES_ATTRIBUTE) instanceof Collection<?> authorities)) {
+            return ANONYMOUS;
+        }
+        for (int i = 0; i < trackedAuthorities.size(); i++) {
+            String tracked = trackedAuthorities.get(i);
+            for (Object authority : authorities) {
+                if (authority instanceof GrantedAuthority granted && tracked.equals(granted.getAuthority())) {
+                    return trackedKeyValues.get(i);
+                }
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,39 @@
+package com.winus.express.common.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to the tracked request.
+ * Registered per session through {@code hibernate.session.events.auto}; a session is single-threaded.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+
+    private long startedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        SqlRequestStats stats = SqlStatementTracker.current();
+        if (stats != null) {
+            stats.recordJdbcTime(System.nanoTime() - startedAt);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.winus.express.common.sql;
+
+/**
+ * One statement that ran longer than the slow-query threshold.
+ *
+ * @param fingerprint normalized SQL (literals and IN-list lengths removed)
+ * @param parameters  Java types of the bound parameters in index order, e.g. {@code [String, long, null]}
+ * @param rows        rows read or updated, or -1 if unknown
+ * @param handler     "Controller.method" that issued it, or null outside a request
+ */
+public record SlowQuery(long timestamp,
+                        String fingerprint,
+                        String parameters,
+                        long rows,
+                        long durationNanos,
+                        String handler) {
+}
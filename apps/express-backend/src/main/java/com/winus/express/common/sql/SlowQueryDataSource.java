@@ -0,0 +1,46 @@
+package com.winus.express.common.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource wrapper that times every statement execution and hands the ones slower than the
+ * threshold to the {@link SlowQueryJournal}. Connections and statements are plain delegating
+ * wrappers, so calls other than {@code execute*} cost one extra virtual call; bind parameter types
+ * and row counts are only looked at once an execution is known to be slow.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final SlowQueryJournal journal;
+
+    public SlowQueryDataSource(DataSource target, SlowQueryJournal journal) {
+        super(target);
+        this.journal = journal;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return new TimedConnection(super.getConnection(), journal);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return new TimedConnection(super.getConnection(username, password), journal);
+    }
+
+    static String currentHandler() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+            RequestAttributes.SCOPE_REQUEST) instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return null;
+    }
+}
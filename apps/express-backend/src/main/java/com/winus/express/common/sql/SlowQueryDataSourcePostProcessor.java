@@ -0,0 +1,31 @@
+package com.winus.express.common.sql;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a {@link SlowQueryDataSource}.
+ * The journal is looked up lazily so this post-processor does not pull metrics beans in early.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.sql.monitor.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<SlowQueryJournal> journal;
+
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryJournal> journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+            return new SlowQueryDataSource(dataSource, journal.getObject());
+        }
+        return bean;
+    }
+}
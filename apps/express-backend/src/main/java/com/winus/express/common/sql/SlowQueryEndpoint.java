@@ -0,0 +1,45 @@
+package com.winus.express.common.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/slowqueries}: the statement fingerprints in the slow-query journal ranked by total
+ * and by p99 time ({@code ?limit=N}, default 20). DELETE empties the journal.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SlowQueryJournal journal;
+
+    public SlowQueryEndpoint(SlowQueryJournal journal) {
+        this.journal = journal;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries(@Nullable Integer limit) {
+        int top = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMillis", TimeUnit.NANOSECONDS.toMillis(journal.thresholdNanos()));
+        result.put("capacity", journal.capacity());
+        result.put("recorded", journal.recorded());
+        result.put("byTotalTime", journal.top(top, SlowQueryJournal.FingerprintStats.BY_TOTAL));
+        result.put("byP99", journal.top(top, SlowQueryJournal.FingerprintStats.BY_P99));
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        journal.clear();
+    }
+}
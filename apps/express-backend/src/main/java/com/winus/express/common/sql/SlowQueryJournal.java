@@ -0,0 +1,128 @@
+package com.winus.express.common.sql;
+
+import com.winus.express.common.config.SqlMonitorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free journal of slow statements.
+ * Writers claim a slot with one atomic increment and overwrite whatever was there, so recording never
+ * blocks a JDBC call; readers take a best-effort snapshot and aggregate it by fingerprint.
+ */
+@Component
+public class SlowQueryJournal {
+
+    private final AtomicReferenceArray<SlowQuery> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+    private final long thresholdNanos;
+    private final Counter recordedCounter;
+
+    public SlowQueryJournal(SqlMonitorProperties properties, MeterRegistry meterRegistry) {
+        SqlMonitorProperties.SlowQuery slowQuery = properties.getSlowQuery();
+        int capacity = Integer.highestOneBit(Math.max(2, slowQuery.getCapacity() - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.thresholdNanos = slowQuery.getThreshold().toNanos();
+        this.recordedCounter = Counter.builder("sql.slow.queries")
+            .description("Statements slower than the slow-query threshold")
+            .register(meterRegistry);
+    }
+
+    public long thresholdNanos() {
+        return thresholdNanos;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long recorded() {
+        return sequence.get();
+    }
+
+    public void record(SlowQuery query) {
+        slots.set((int) (sequence.getAndIncrement() & mask), query);
+        recordedCounter.increment();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    /**
+     * Entries currently held, newest first
+     */
+    public List<SlowQuery> snapshot() {
+        List<SlowQuery> queries = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SlowQuery query = slots.get(i);
+            if (query != null) {
+                queries.add(query);
+            }
+        }
+        queries.sort(Comparator.comparingLong(SlowQuery::timestamp).reversed());
+        return queries;
+    }
+
+    /**
+     * Held entries grouped by fingerprint, ordered by the given comparator
+     */
+    public List<FingerprintStats> top(int limit, Comparator<FingerprintStats> order) {
+        Map<String, List<SlowQuery>> byFingerprint = new HashMap<>();
+        for (SlowQuery query : snapshot()) {
+            byFingerprint.computeIfAbsent(query.fingerprint(), key -> new ArrayList<>()).add(query);
+        }
+        return byFingerprint.entrySet().stream()
+            .map(entry -> FingerprintStats.of(entry.getKey(), entry.getValue()))
+            .sorted(order)
+            .limit(limit)
+            .toList();
+    }
+
+    /**
+     * Aggregate of the held entries for one fingerprint; {@code latest} is the most recent occurrence.
+     */
+    public record FingerprintStats(String fingerprint,
+                                   int count,
+                                   double totalMillis,
+                                   double p99Millis,
+                                   double maxMillis,
+                                   SlowQuery latest) {
+
+        public static final Comparator<FingerprintStats> BY_TOTAL =
+            Comparator.comparingDouble(FingerprintStats::totalMillis).reversed();
+        public static final Comparator<FingerprintStats> BY_P99 =
+            Comparator.comparingDouble(FingerprintStats::p99Millis).reversed();
+
+        static FingerprintStats of(String fingerprint, List<SlowQuery> newestFirst) {
+            long[] durations = newestFirst.stream().mapToLong(SlowQuery::durationNanos).sorted().toArray();
+            long total = Arrays.stream(durations).sum();
+            int p99Index = (int) Math.ceil(durations.length * 0.99) - 1;
+            return new FingerprintStats(
+                fingerprint,
+                durations.length,
+                millis(total),
+                millis(durations[Math.max(0, p99Index)]),
+                millis(durations[durations.length - 1]),
+                newestFirst.get(0));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
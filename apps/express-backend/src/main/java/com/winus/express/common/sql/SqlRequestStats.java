@@ -0,0 +1,78 @@
+package com.winus.express.common.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL activity of one request: statement count, JDBC time and how often each statement shape ran.
+ * Confined to the request thread, so it is not thread-safe.
+ */
+public class SqlRequestStats {
+
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern STRING_LITERALS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERALS = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern PARAMETER_LISTS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxFingerprints;
+    private final Map<String, Integer> fingerprints = new HashMap<>();
+    private int statements;
+    private long jdbcNanos;
+    private int maxRepeats;
+    private String mostRepeated;
+
+    public SqlRequestStats(int maxFingerprints) {
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        String fingerprint = fingerprint(sql);
+        Integer count = fingerprints.get(fingerprint);
+        if (count == null && fingerprints.size() >= maxFingerprints) {
+            return;
+        }
+        int repeats = count == null ? 1 : count + 1;
+        fingerprints.put(fingerprint, repeats);
+        if (repeats > maxRepeats) {
+            maxRepeats = repeats;
+            mostRepeated = fingerprint;
+        }
+    }
+
+    void recordJdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Executions of the most frequent statement shape; a high value on a read usually means N+1 loading
+     */
+    public int maxRepeats() {
+        return maxRepeats;
+    }
+
+    public String mostRepeated() {
+        return mostRepeated;
+    }
+
+    /**
+     * Statement shape with comments, literals and IN-list lengths removed
+     */
+    static String fingerprint(String sql) {
+        String normalized = COMMENTS.matcher(sql).replaceAll("");
+        normalized = STRING_LITERALS.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERALS.matcher(normalized).replaceAll("?");
+        normalized = PARAMETER_LISTS.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,132 @@
+package com.winus.express.common.sql;
+
+import com.winus.express.common.config.SqlMonitorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the SQL each request runs, including lazy loads triggered while the response is serialized.
+ * Records {@code sql.request.statements} and {@code sql.request.jdbc} per URI template and reports
+ * requests over the configured statement, repeat (N+1) or JDBC-time limits.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final SqlMonitorProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final long maxJdbcNanos;
+    private final Map<String, UriMeters> meters = new ConcurrentHashMap<>();
+
+    public SqlStatementFilter(SqlMonitorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.maxJdbcNanos = properties.getMaxJdbcTime().toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlRequestStats stats = SqlStatementTracker.begin(properties.getMaxFingerprints());
+        ContentCachingResponseWrapper buffered =
+            properties.isResponseHeaders() ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            SqlStatementTracker.end();
+            if (buffered != null) {
+                buffered.setHeader("X-Sql-Statements", String.valueOf(stats.statements()));
+                buffered.setHeader("X-Sql-Time-Ms", String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.jdbcNanos())));
+                buffered.setHeader("X-Sql-Max-Repeats", String.valueOf(stats.maxRepeats()));
+                buffered.copyBodyToResponse();
+            }
+        }
+        report(request, stats);
+    }
+
+    private void report(HttpServletRequest request, SqlRequestStats stats) {
+        if (stats.statements() == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        UriMeters uriMeters = meters.computeIfAbsent(uri, this::createMeters);
+        uriMeters.statements().record(stats.statements());
+        uriMeters.jdbcTime().record(stats.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        boolean tooMany = stats.statements() > properties.getMaxStatements();
+        boolean repeated = stats.maxRepeats() > properties.getMaxRepeats();
+        boolean tooSlow = stats.jdbcNanos() > maxJdbcNanos;
+        if (!tooMany && !repeated && !tooSlow) {
+            return;
+        }
+        if (repeated) {
+            uriMeters.repeated().increment();
+        }
+        if (tooMany || tooSlow) {
+            uriMeters.overBudget().increment();
+        }
+
+        String message = String.format("%s %s ran %d SQL statements in %dms; most repeated x%d: %s",
+            request.getMethod(), uri, stats.statements(), TimeUnit.NANOSECONDS.toMillis(stats.jdbcNanos()),
+            stats.maxRepeats(), stats.mostRepeated());
+        if (properties.isFailOnViolation()) {
+            throw new IllegalStateException(message);
+        }
+        log.warn(message);
+    }
+
+    private UriMeters createMeters(String uri) {
+        return new UriMeters(
+            DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements per request")
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .serviceLevelObjectives(1, 5, 10, 30, 100)
+                .register(meterRegistry),
+            Timer.builder("sql.request.jdbc")
+                .description("JDBC execution time per request")
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry),
+            violationCounter(uri, "repeated"),
+            violationCounter(uri, "budget"));
+    }
+
+    private Counter violationCounter(String uri, String type) {
+        return Counter.builder("sql.request.violations")
+            .description("Requests over the SQL statement, repeat (N+1) or JDBC time limits")
+            .tag("uri", uri)
+            .tag("type", type)
+            .register(meterRegistry);
+    }
+
+    private record UriMeters(DistributionSummary statements, Timer jdbcTime, Counter repeated, Counter overBudget) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.winus.express.common.sql;
+
+/**
+ * Binds {@link SqlRequestStats} to the current thread.
+ * Hibernate creates the inspector and session listeners itself, so they find the stats here.
+ */
+public final class SqlStatementTracker {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementTracker() {
+    }
+
+    public static SqlRequestStats begin(int maxFingerprints) {
+        SqlRequestStats stats = new SqlRequestStats(maxFingerprints);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+}
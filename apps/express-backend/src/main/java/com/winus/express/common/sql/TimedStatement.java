@@ -0,0 +1,481 @@
+package com.winus.express.common.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * Statement that times its executions for the {@link SlowQueryJournal}. Every other call goes straight to
+ * the driver's statement, and nothing is captured for executions under the threshold. A slow execution
+ * is recorded with its bind parameter types and, if it returns rows, a result set that counts them.
+ */
+class TimedStatement implements Statement {
+
+    final Statement statement;
+    /** Prepared SQL, null for a plain statement */
+    final String sql;
+    private final Connection connection;
+    private final SlowQueryJournal journal;
+
+    /** Slow execution whose result set has not been asked for yet */
+    private SlowQuery pendingQuery;
+    private CountingResultSet openResultSet;
+
+    TimedStatement(Statement statement, String sql, Connection connection, SlowQueryJournal journal) {
+        this.statement = statement;
+        this.sql = sql;
+        this.connection = connection;
+        this.journal = journal;
+    }
+
+    ResultSet executed(String sql, long start, ResultSet resultSet) {
+        long elapsed = System.nanoTime() - start;
+        recordPrevious();
+        if (elapsed < journal.thresholdNanos() || resultSet == null) {
+            return resultSet;
+        }
+        return countRows(slowQuery(sql, elapsed, -1), resultSet);
+    }
+
+    boolean executed(String sql, long start, boolean hasResultSet) throws SQLException {
+        long elapsed = System.nanoTime() - start;
+        recordPrevious();
+        if (elapsed >= journal.thresholdNanos()) {
+            if (hasResultSet) {
+                pendingQuery = slowQuery(sql, elapsed, -1);
+            } else {
+                journal.record(slowQuery(sql, elapsed, statement.getUpdateCount()));
+            }
+        }
+        return hasResultSet;
+    }
+
+    int executed(String sql, long start, int rows) {
+        executed(sql, start, (long) rows);
+        return rows;
+    }
+
+    long executed(String sql, long start, long rows) {
+        long elapsed = System.nanoTime() - start;
+        recordPrevious();
+        if (elapsed >= journal.thresholdNanos()) {
+            journal.record(slowQuery(sql, elapsed, rows));
+        }
+        return rows;
+    }
+
+    int[] executed(String sql, long start, int[] counts) {
+        long elapsed = System.nanoTime() - start;
+        recordPrevious();
+        if (elapsed >= journal.thresholdNanos()) {
+            long rows = 0;
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+            journal.record(slowQuery(sql, elapsed, rows));
+        }
+        return counts;
+    }
+
+    long[] executed(String sql, long start, long[] counts) {
+        long elapsed = System.nanoTime() - start;
+        recordPrevious();
+        if (elapsed >= journal.thresholdNanos()) {
+            long rows = 0;
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+            journal.record(slowQuery(sql, elapsed, rows));
+        }
+        return counts;
+    }
+
+    /**
+     * Bind parameter types of the slow execution; a plain statement has none
+     */
+    String parameterTypes() {
+        return "[]";
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeQuery(sql));
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeUpdate(sql));
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return statement.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        statement.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return statement.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        statement.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        statement.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return statement.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        statement.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        statement.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return statement.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        statement.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        statement.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.execute(sql));
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return statement.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return statement.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        statement.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return statement.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        statement.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return statement.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return statement.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return statement.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        statement.addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        statement.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeBatch());
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return statement.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return statement.getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.execute(sql, columnIndexes));
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.execute(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.execute(sql, columnNames));
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return statement.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return statement.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        statement.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return statement.isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        statement.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return statement.isCloseOnCompletion();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return statement.getLargeUpdateCount();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        statement.setLargeMaxRows(max);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return statement.getLargeMaxRows();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeLargeBatch());
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeLargeUpdate(sql));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeLargeUpdate(sql, columnIndexes));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeLargeUpdate(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        long start = System.nanoTime();
+        return executed(sql, start, statement.executeLargeUpdate(sql, columnNames));
+    }
+
+    @Override
+    public String enquoteLiteral(String val) throws SQLException {
+        return statement.enquoteLiteral(val);
+    }
+
+    @Override
+    public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+        return statement.enquoteIdentifier(identifier, alwaysQuote);
+    }
+
+    @Override
+    public boolean isSimpleIdentifier(String identifier) throws SQLException {
+        return statement.isSimpleIdentifier(identifier);
+    }
+
+    @Override
+    public String enquoteNCharLiteral(String val) throws SQLException {
+        return statement.enquoteNCharLiteral(val);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        ResultSet resultSet = statement.getResultSet();
+        SlowQuery query = pendingQuery;
+        if (query == null || resultSet == null) {
+            return resultSet;
+        }
+        pendingQuery = null;
+        return countRows(query, resultSet);
+    }
+
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            statement.close();
+        } finally {
+            recordPrevious();
+        }
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(statement) ? iface.cast(statement) : statement.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(statement) || statement.isWrapperFor(iface);
+    }
+
+    /**
+     * Record the previous slow execution once its results are done with: the statement ran again or closed
+     */
+    private void recordPrevious() {
+        if (pendingQuery != null) {
+            journal.record(pendingQuery);
+            pendingQuery = null;
+        }
+        if (openResultSet != null) {
+            openResultSet.recordOnce();
+            openResultSet = null;
+        }
+    }
+
+    private SlowQuery slowQuery(String executedSql, long elapsedNanos, long rows) {
+        return new SlowQuery(System.currentTimeMillis(),
+            executedSql != null ? SqlRequestStats.fingerprint(executedSql) : "<unknown>",
+            parameterTypes(), rows, elapsedNanos, SlowQueryDataSource.currentHandler());
+    }
+
+    private ResultSet countRows(SlowQuery query, ResultSet resultSet) {
+        openResultSet = new CountingResultSet(resultSet, query);
+        return (ResultSet) Proxy.newProxyInstance(TimedStatement.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class}, openResultSet);
+    }
+
+    /**
+     * Result set of a slow query, counting rows until it is closed. Only slow queries pay for the proxy.
+     */
+    private class CountingResultSet implements InvocationHandler {
+
+        private final ResultSet target;
+        private final SlowQuery query;
+        private long rows;
+        private boolean recorded;
+
+        CountingResultSet(ResultSet target, SlowQuery query) {
+            this.target = target;
+            this.query = query;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            switch (method.getName()) {
+                case "next" -> {
+                    if (Boolean.TRUE.equals(result)) {
+                        rows++;
+                    }
+                }
+                case "close" -> recordOnce();
+                default -> {
+                }
+            }
+            return result;
+        }
+
+        void recordOnce() {
+            if (!recorded) {
+                recorded = true;
+                journal.record(new SlowQuery(query.timestamp(), query.fingerprint(), query.parameters(),
+                    rows, query.durationNanos(), query.handler()));
+            }
+        }
+    }
+}
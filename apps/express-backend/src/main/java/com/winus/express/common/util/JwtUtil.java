@@ -1,18 +1,44 @@
 package com.winus.express.common.util;
 
+import com.winus.express.security.principal.CustomUserPrincipal;
+import com.winus.express.security.token.JwtClaims;
+import com.winus.express.security.token.PermissionCodec;
+import com.winus.express.security.token.VerifiedTokenCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    private static final String CLAIM_USERNAME = "usr";
+    private static final String CLAIM_REAL_NAME = "nm";
+    private static final String CLAIM_EMAIL = "em";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_PERMISSIONS = "perms";
+    private static final String CLAIM_PERMISSION_STAMP = "pv";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.security.jwt.secret-key}")
     private String jwtSecret;
 
@@ -22,59 +48,127 @@ public class JwtUtil {
     @Value("${app.security.jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.security.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    @Value("${app.security.jwt.embed-authorities:false}")
+    private boolean embedAuthorities;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private Counter verifiedCounter;
+    private Counter cacheHitCounter;
+    private Counter expiredCounter;
+    private Counter invalidCounter;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+            .verifyWith(signingKey)
+            .build();
+        verifiedTokenCache = new VerifiedTokenCache(verifiedCacheSize);
+
+        verifiedCounter = verificationCounter("verified");
+        cacheHitCounter = verificationCounter("cache_hit");
+        expiredCounter = verificationCounter("expired");
+        invalidCounter = verificationCounter("invalid");
+        meterRegistry.gauge("jwt.verified.cache.size", verifiedTokenCache, VerifiedTokenCache::size);
     }
 
     public String generateAccessToken(String userId) {
-        return generateToken(userId, accessTokenExpiration);
+        return tokenBuilder(userId, accessTokenExpiration).compact();
+    }
+
+    /**
+     * Generate an access token that, when {@code app.security.jwt.embed-authorities} is enabled,
+     * carries the principal's profile, role codes, permission codes and permission version stamp.
+     * The stamp must be read before the permissions are loaded.
+     */
+    public String generateAccessToken(CustomUserPrincipal principal, List<String> permissions, String permissionStamp) {
+        JwtBuilder builder = tokenBuilder(principal.getUserId(), accessTokenExpiration);
+        String encodedPermissions = embedAuthorities ? PermissionCodec.encode(permissions) : null;
+        if (encodedPermissions == null) {
+            return builder.compact();
+        }
+
+        List<String> roles = principal.getAuthorities().stream()
+            .map(authority -> authority.getAuthority().substring(ROLE_PREFIX.length()))
+            .toList();
+
+        return builder
+            .claim(CLAIM_USERNAME, principal.getUsername())
+            .claim(CLAIM_REAL_NAME, principal.getRealName())
+            .claim(CLAIM_EMAIL, principal.getEmail())
+            .claim(CLAIM_ROLES, roles)
+            .claim(CLAIM_PERMISSIONS, encodedPermissions)
+            .claim(CLAIM_PERMISSION_STAMP, permissionStamp)
+            .compact();
     }
 
     public String generateRefreshToken(String userId) {
-        return generateToken(userId, refreshTokenExpiration);
+        return tokenBuilder(userId, refreshTokenExpiration).compact();
+    }
+
+    public boolean isEmbedAuthorities() {
+        return embedAuthorities;
     }
 
-    private String generateToken(String userId, long expiration) {
+    private JwtBuilder tokenBuilder(String userId, long expiration) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
+            .id(UUID.randomUUID().toString())
             .subject(userId)
             .issuedAt(now)
             .expiration(expiryDate)
-            .signWith(getSigningKey())
-            .compact();
+            .signWith(signingKey);
     }
 
-    public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+    /**
+     * Verify the token signature and expiry once and return its claims.
+     * Tokens seen before are served from the verified-token cache without re-running the HMAC.
+     */
+    public Optional<JwtClaims> verifyToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            invalidCounter.increment();
+            return Optional.empty();
+        }
 
-        return claims.getSubject();
-    }
+        JwtClaims cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            cacheHitCounter.increment();
+            return Optional.of(cached);
+        }
 
-    public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException ex) {
-            log.error("Invalid JWT signature", ex);
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token", ex);
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            JwtClaims verified = toJwtClaims(claims);
+            verifiedTokenCache.put(token, verified);
+            verifiedCounter.increment();
+            return Optional.of(verified);
         } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token", ex);
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token", ex);
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty", ex);
+            expiredCounter.increment();
+            log.debug("Expired JWT token: {}", ex.getMessage());
+        } catch (JwtException | IllegalArgumentException ex) {
+            invalidCounter.increment();
+            log.debug("Invalid JWT token: {}", ex.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Extract the bearer token from the Authorization header
+     */
+    public static String resolveBearerToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
         }
-        return false;
+        return null;
     }
 
     public long getAccessTokenExpiration() {
@@ -84,4 +178,33 @@ public class JwtUtil {
     public long getRefreshTokenExpiration() {
         return refreshTokenExpiration;
     }
-}
\ No newline at end of file
+
+    private Counter verificationCounter(String result) {
+        return Counter.builder("jwt.verification")
+            .description("JWT verification outcomes")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static JwtClaims toJwtClaims(Claims claims) {
+        String encodedPermissions = claims.get(CLAIM_PERMISSIONS, String.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+
+        return new JwtClaims(
+            claims.getSubject(),
+            claims.getId(),
+            toInstant(claims.getIssuedAt()),
+            toInstant(claims.getExpiration()),
+            claims.get(CLAIM_USERNAME, String.class),
+            claims.get(CLAIM_REAL_NAME, String.class),
+            claims.get(CLAIM_EMAIL, String.class),
+            roles != null ? roles.stream().map(String::valueOf).toList() : null,
+            encodedPermissions != null ? List.copyOf(PermissionCodec.decode(encodedPermissions)) : null,
+            claims.get(CLAIM_PERMISSION_STAMP, String.class)
+        );
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.winus.express.common.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * HTTP 요청 유틸리티
+ */
+public final class RequestUtils {
+
+    private RequestUtils() {
+    }
+
+    /**
+     * 클라이언트 IP 주소 가져오기 (로그 표시용)
+     * 프록시 헤더는 클라이언트가 임의로 보낼 수 있으므로 제한이나 차단 같은 보안 판단에는
+     * {@link HttpServletRequest#getRemoteAddr()}를 사용합니다.
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        String[] headers = {
+            "X-Forwarded-For",
+            "Proxy-Client-IP",
+            "WL-Proxy-Client-IP",
+            "HTTP_X_FORWARDED_FOR",
+            "HTTP_X_FORWARDED",
+            "HTTP_X_CLUSTER_CLIENT_IP",
+            "HTTP_CLIENT_IP",
+            "HTTP_FORWARDED_FOR",
+            "HTTP_FORWARDED",
+            "HTTP_VIA",
+            "REMOTE_ADDR"
+        };
+
+        for (String header : headers) {
+            String ip = request.getHeader(header);
+            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
+                return ip.split(",")[0].trim();
+            }
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,223 @@
+package com.winus.express.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Builds immutable trees from flat parent-id rows without recursion or touching the rows themselves.
+ * Siblings keep the order of the input, which is expected to be sorted already (the repository
+ * queries order by SORT_NO); only when some siblings are out of that order are the child lists
+ * sorted, each by a primitive key.
+ * A row is attached only when its parent is reachable from the root, so orphans and parent cycles are
+ * dropped, a repeated id gets no children, and levels deeper than the depth limit are cut off.
+ */
+@Slf4j
+public final class TreeBuilder {
+
+    public static final String ROOT_ID = "0";
+    public static final int DEFAULT_MAX_DEPTH = 64;
+
+    private static final int NONE = -1;
+
+    private TreeBuilder() {
+    }
+
+    public static <T, N> List<N> build(List<? extends T> rows,
+                                       Function<? super T, String> idOf,
+                                       Function<? super T, String> parentIdOf,
+                                       ToIntFunction<? super T> sortKeyOf,
+                                       BiFunction<? super T, List<N>, N> nodeOf) {
+        return build(rows, idOf, parentIdOf, sortKeyOf, nodeOf, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * @param rows      flat rows, ideally already in sort order; rows with a null or {@value #ROOT_ID} parent are roots
+     * @param sortKeyOf sibling order; siblings already in this order are not sorted again
+     * @param nodeOf    creates a node from its row and its already built, immutable children
+     * @param maxDepth  number of levels kept, roots being level 1
+     */
+    public static <T, N> List<N> build(List<? extends T> rows,
+                                       Function<? super T, String> idOf,
+                                       Function<? super T, String> parentIdOf,
+                                       ToIntFunction<? super T> sortKeyOf,
+                                       BiFunction<? super T, List<N>, N> nodeOf,
+                                       int maxDepth) {
+        ChildLists lists = ChildLists.of(rows, parentIdOf, sortKeyOf);
+        Map<String, Integer> listsByParent = lists.byParent;
+        int[] start = lists.start;
+        Object[] children = lists.slots;
+        int listCount = start.length - 1;
+
+        // Post-order walk with an explicit stack. A child list is taken once, when its parent is entered,
+        // so rows unreachable from the root (orphans, cycles) are never visited and a repeated id cannot
+        // pick up the same children twice. A built node replaces its row in the slot it came from.
+        boolean[] taken = new boolean[listCount];
+        int[] cursor = Arrays.copyOf(start, listCount);
+        int[] slotStack = new int[Math.min(rows.size(), maxDepth) + 1];
+        int[] listStack = new int[slotStack.length];
+        int depth = 0;
+        int truncated = 0;
+        slotStack[0] = NONE;
+        listStack[0] = take(listsByParent, taken, ROOT_ID);
+        depth++;
+        while (true) {
+            int list = listStack[depth - 1];
+            if (list != NONE && cursor[list] < start[list + 1]) {
+                int slot = cursor[list]++;
+                if (depth > maxDepth) {
+                    children[slot] = null;
+                    truncated++;
+                } else {
+                    slotStack[depth] = slot;
+                    listStack[depth] = take(listsByParent, taken, idOf.apply(rowAt(children, slot)));
+                    depth++;
+                }
+                continue;
+            }
+
+            List<N> nodes = list != NONE ? collect(children, start[list], start[list + 1]) : List.of();
+            if (--depth == 0) {
+                if (truncated > 0) {
+                    log.warn("Tree deeper than {} levels, {} subtrees dropped", maxDepth, truncated);
+                }
+                return nodes;
+            }
+            int slot = slotStack[depth];
+            children[slot] = nodeOf.apply(rowAt(children, slot), nodes);
+        }
+    }
+
+    private static int take(Map<String, Integer> listsByParent, boolean[] taken, String parentId) {
+        Integer list = listsByParent.get(parentId);
+        if (list == null || taken[list]) {
+            return NONE;
+        }
+        taken[list] = true;
+        return list;
+    }
+
+    /**
+     * Sort key for a nullable SORT_NO column; nulls sort last
+     */
+    public static int sortKey(Integer sortNo) {
+        return sortNo != null ? sortNo : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Built nodes of one child list
+     */
+    @SuppressWarnings("unchecked")
+    private static <N> List<N> collect(Object[] built, int from, int to) {
+        int count = to - from;
+        if (count == 0) {
+            return List.of();
+        }
+        if (count <= 2 && built[from] != null && built[to - 1] != null) {
+            return count == 1 ? List.of((N) built[from]) : List.of((N) built[from], (N) built[from + 1]);
+        }
+        Object[] nodes = new Object[count];
+        int collected = 0;
+        for (int slot = from; slot < to; slot++) {
+            // Subtrees cut off by the depth limit were never built
+            if (built[slot] != null) {
+                nodes[collected++] = built[slot];
+            }
+        }
+        return (List<N>) List.of(collected == count ? nodes : Arrays.copyOf(nodes, collected));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T rowAt(Object[] slots, int slot) {
+        return (T) slots[slot];
+    }
+
+    /**
+     * Stable sort of one child list by sort key: key in the high bits, offset in the low bits
+     */
+    private static <T> void sortRange(Object[] slots, int from, int to, ToIntFunction<? super T> sortKeyOf) {
+        if (to - from < 2) {
+            return;
+        }
+        long[] packed = new long[to - from];
+        for (int slot = from; slot < to; slot++) {
+            packed[slot - from] = ((long) sortKeyOf.applyAsInt(rowAt(slots, slot)) << 32) | (slot - from);
+        }
+        Arrays.sort(packed);
+        Object[] range = Arrays.copyOfRange(slots, from, to);
+        for (int slot = from; slot < to; slot++) {
+            slots[slot] = range[(int) packed[slot - from]];
+        }
+    }
+
+    /**
+     * Child lists keyed by parent id, each a contiguous range of rows in sibling order
+     */
+    private static final class ChildLists {
+
+        private final Map<String, Integer> byParent;
+        private final int[] start;
+        private final Object[] slots;
+
+        private ChildLists(Map<String, Integer> byParent, int[] start, Object[] slots) {
+            this.byParent = byParent;
+            this.start = start;
+            this.slots = slots;
+        }
+
+        /**
+         * One pass finds the list of every row and whether every list is in sort order, a second places
+         * the rows; the lists are sorted only when one of them was not
+         */
+        private static <T> ChildLists of(List<? extends T> rows,
+                                         Function<? super T, String> parentIdOf,
+                                         ToIntFunction<? super T> sortKeyOf) {
+            int size = rows.size();
+            // Sized for a fan-out of a few children, so a typical tree is indexed without rehashing
+            Map<String, Integer> byParent = new HashMap<>(Math.max(16, size / 4));
+            int[] listOf = new int[size];
+            int[] childCount = new int[size + 1];
+            int[] lastKey = new int[size + 1];
+            boolean sorted = true;
+            for (int i = 0; i < size; i++) {
+                T row = rows.get(i);
+                String parentId = parentIdOf.apply(row);
+                String key = parentId != null ? parentId : ROOT_ID;
+                int sortKey = sortKeyOf.applyAsInt(row);
+                Integer list = byParent.get(key);
+                if (list == null) {
+                    list = byParent.size();
+                    byParent.put(key, list);
+                } else if (sortKey < lastKey[list]) {
+                    sorted = false;
+                }
+                lastKey[list] = sortKey;
+                childCount[list]++;
+                listOf[i] = list;
+            }
+
+            int listCount = byParent.size();
+            int[] start = new int[listCount + 1];
+            for (int list = 0; list < listCount; list++) {
+                start[list + 1] = start[list] + childCount[list];
+            }
+            int[] cursor = Arrays.copyOf(start, listCount);
+            Object[] slots = new Object[size];
+            for (int i = 0; i < size; i++) {
+                slots[cursor[listOf[i]]++] = rows.get(i);
+            }
+            if (!sorted) {
+                for (int list = 0; list < listCount; list++) {
+                    sortRange(slots, start[list], start[list + 1], sortKeyOf);
+                }
+            }
+            return new ChildLists(byParent, start, slots);
+        }
+    }
+}
@@ -1,23 +1,42 @@
 package com.winus.express.modules.auth.controller;
 
+import com.winus.express.common.annotation.ApiLogging;
+import com.winus.express.common.annotation.ApiLogging.LogLevel;
+import com.winus.express.common.cache.ETags;
 import com.winus.express.modules.auth.dto.LoginRequest;
 import com.winus.express.modules.auth.dto.LoginResponse;
 import com.winus.express.modules.system.user.dto.UserDto;
 import com.winus.express.security.principal.CustomUserPrincipal;
 import com.winus.express.modules.system.user.service.UserService;
 import com.winus.express.common.util.JwtUtil;
+import com.winus.express.security.login.LoginAttemptLimiter;
+import com.winus.express.security.password.PasswordHashingRejectedException;
+import com.winus.express.security.permission.PermissionIndex;
+import com.winus.express.security.provider.CustomUserDetailsService;
+import com.winus.express.security.token.JwtClaims;
+import com.winus.express.security.token.PermissionVersionService;
+import com.winus.express.security.token.TokenRevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -28,9 +47,28 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+    private final PermissionVersionService permissionVersionService;
+    private final PermissionIndex permissionIndex;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final MeterRegistry meterRegistry;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    @ApiLogging(level = LogLevel.BASIC)
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest,
+                                               HttpServletRequest request) {
+        // Proxy headers are client-supplied; behind a trusted proxy the container resolves the
+        // client address (server.forward-headers-strategy), so getRemoteAddr() cannot be spoofed
+        String clientIp = request.getRemoteAddr();
+        LoginAttemptLimiter.Attempt attempt = loginAttemptLimiter.reserve(loginRequest.getUsername(), clientIp);
+        if (attempt.blocked()) {
+            log.warn("Login refused after too many failed attempts: {} from {}", loginRequest.getUsername(), clientIp);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -39,14 +77,28 @@ public class AuthController {
                 )
             );
 
+            loginAttemptLimiter.recordSuccess(attempt);
             SecurityContextHolder.getContext().setAuthentication(authentication);
             CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
 
-            String accessToken = jwtUtil.generateAccessToken(userPrincipal.getUserId());
+            // Permissions come with the login query. Embedded tokens need the stamp read before the
+            // permissions, so a concurrent change leaves the token stale, never wrong; reload them then.
+            String permissionStamp = null;
+            List<String> permissions = userPrincipal.getPermissions();
+            if (jwtUtil.isEmbedAuthorities() || permissions == null) {
+                permissionStamp = permissionVersionService.currentStamp(userPrincipal.getUserId());
+                permissions = permissionIndex.getPermissions(userPrincipal.getAuthorities());
+            }
+
+            String accessToken = jwtUtil.generateAccessToken(userPrincipal, permissions, permissionStamp);
             String refreshToken = jwtUtil.generateRefreshToken(userPrincipal.getUserId());
 
             // Update login info
-            userService.updateLoginInfo(userPrincipal.getUserId(), loginRequest.getClientIp());
+            try {
+                userService.updateLoginInfo(userPrincipal.getUserId(), loginRequest.getClientIp());
+            } catch (TaskRejectedException e) {
+                log.warn("Skipped login info update for user {}: {}", userPrincipal.getUserId(), e.getMessage());
+            }
 
             LoginResponse response = LoginResponse.builder()
                 .accessToken(accessToken)
@@ -59,24 +111,46 @@ public class AuthController {
                     .email(userPrincipal.getEmail())
                     .realName(userPrincipal.getRealName())
                     .build())
-                .permissions(userService.getUserPermissions(userPrincipal.getUserId()))
+                .permissions(permissions)
                 .build();
 
+            outcome = "success";
             return ResponseEntity.ok(response);
 
+        } catch (BadCredentialsException e) {
+            outcome = "bad_credentials";
+            log.warn("Login failed for user: {} from {}", loginRequest.getUsername(), clientIp);
+            return ResponseEntity.badRequest().build();
+        } catch (PasswordHashingRejectedException e) {
+            outcome = "rejected";
+            loginAttemptLimiter.release(attempt);
+            log.warn("Login rejected, password hashing is saturated: {}", loginRequest.getUsername());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
         } catch (Exception e) {
+            loginAttemptLimiter.release(attempt);
             log.error("Login failed for user: {}", loginRequest.getUsername(), e);
             return ResponseEntity.badRequest().build();
+        } finally {
+            sample.stop(Timer.builder("auth.login")
+                .description("Login latency by outcome")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
         }
     }
 
     @PostMapping("/refresh")
+    @ApiLogging(level = LogLevel.BASIC)
     public ResponseEntity<Map<String, String>> refresh(@RequestBody Map<String, String> request) {
         String refreshToken = request.get("refreshToken");
 
-        if (jwtUtil.validateToken(refreshToken)) {
-            String userId = jwtUtil.getUserIdFromToken(refreshToken);
-            String newAccessToken = jwtUtil.generateAccessToken(userId);
+        Optional<JwtClaims> claims = jwtUtil.verifyToken(refreshToken);
+        if (claims.isPresent() && !tokenRevocationService.isRevoked(claims.get())) {
+            String newAccessToken = issueAccessToken(claims.get().userId());
+            if (newAccessToken == null) {
+                return ResponseEntity.badRequest().build();
+            }
 
             return ResponseEntity.ok(Map.of(
                 "accessToken", newAccessToken,
@@ -89,7 +163,17 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout() {
+    public ResponseEntity<Void> logout(HttpServletRequest request,
+                                       @RequestBody(required = false) Map<String, String> body) {
+        // Only present tokens are verified, so a logout without one does not count as an invalid token
+        String accessToken = JwtUtil.resolveBearerToken(request);
+        if (StringUtils.hasText(accessToken)) {
+            jwtUtil.verifyToken(accessToken).ifPresent(tokenRevocationService::revoke);
+        }
+        if (body != null && StringUtils.hasText(body.get("refreshToken"))) {
+            jwtUtil.verifyToken(body.get("refreshToken")).ifPresent(tokenRevocationService::revoke);
+        }
+
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok().build();
     }
@@ -111,12 +195,38 @@ public class AuthController {
     }
 
     @GetMapping("/codes")
-    public ResponseEntity<List<String>> getAccessCodes(Authentication authentication) {
+    @ApiLogging(level = LogLevel.BASIC)
+    public ResponseEntity<List<String>> getAccessCodes(
+            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (authentication != null && authentication.getPrincipal() instanceof CustomUserPrincipal userPrincipal) {
-            List<String> permissions = userService.getUserPermissions(userPrincipal.getUserId());
-            return ResponseEntity.ok(permissions);
+            List<String> permissions = userPrincipal.getPermissions() != null
+                ? userPrincipal.getPermissions()
+                : permissionIndex.getPermissions(userPrincipal.getAuthorities());
+            String etag = ETags.of(permissions);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE).body(permissions);
         }
 
         return ResponseEntity.ok(List.of());
     }
+
+    /**
+     * Issue a new access token for a refresh, embedding authorities when enabled.
+     * Returns null when the account can no longer authenticate.
+     */
+    private String issueAccessToken(String userId) {
+        if (!jwtUtil.isEmbedAuthorities()) {
+            return jwtUtil.generateAccessToken(userId);
+        }
+
+        String permissionStamp = permissionVersionService.currentStamp(userId);
+        CustomUserPrincipal principal = userDetailsService.loadUserByUserId(userId);
+        if (!principal.isEnabled() || !principal.isAccountNonLocked()) {
+            return null;
+        }
+        return jwtUtil.generateAccessToken(principal, permissionIndex.getPermissions(principal.getAuthorities()), permissionStamp);
+    }
 }
\ No newline at end of file
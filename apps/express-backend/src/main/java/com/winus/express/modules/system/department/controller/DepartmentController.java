@@ -7,6 +7,9 @@ import com.winus.express.modules.system.department.service.DepartmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +23,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class DepartmentController {
 
+    private static final String VERSION_CONFLICT_MESSAGE = "다른 사용자가 먼저 수정했습니다. 새로고침 후 다시 시도해 주세요.";
+
     private final DepartmentService departmentService;
 
     @GetMapping
@@ -31,9 +36,10 @@ public class DepartmentController {
 
     @GetMapping("/tree")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DEPT_VIEW')")
-    public ResponseEntity<List<Department>> getDepartmentTree() {
-        List<Department> departmentTree = departmentService.getDepartmentTree();
-        return ResponseEntity.ok(departmentTree);
+    public ResponseEntity<byte[]> getDepartmentTree(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return departmentService.getDepartmentTreePayload().toResponse(acceptEncoding, ifNoneMatch);
     }
 
     @GetMapping("/{deptId}")
@@ -65,6 +71,9 @@ public class DepartmentController {
         try {
             Department updatedDepartment = departmentService.updateDepartment(deptId, departmentDto);
             return ResponseEntity.ok(ApiResponse.success("부서 정보가 성공적으로 업데이트되었습니다.", updatedDepartment));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(VERSION_CONFLICT_MESSAGE, "VERSION_CONFLICT"));
         } catch (RuntimeException e) {
             log.error("Failed to update department: {}", deptId, e);
             return ResponseEntity.badRequest()
@@ -36,4 +36,7 @@ public class DepartmentDto {
 
     @Size(max = 500, message = "설명은 500자를 초과할 수 없습니다")
     private String remark;
+
+    // Version the client read; when set, the update fails if someone else changed the row since
+    private Long version;
 }
\ No newline at end of file
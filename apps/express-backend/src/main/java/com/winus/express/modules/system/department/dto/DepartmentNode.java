@@ -0,0 +1,41 @@
+package com.winus.express.modules.system.department.dto;
+
+import com.winus.express.modules.system.department.entity.Department;
+
+import java.util.List;
+
+/**
+ * Immutable department tree node, detached from the persistence context.
+ */
+public record DepartmentNode(String deptId,
+                             String deptCode,
+                             String parentId,
+                             String parentCode,
+                             String ancestors,
+                             String deptName,
+                             String leader,
+                             String phone,
+                             String email,
+                             Integer sortNo,
+                             String status,
+                             String remark,
+                             List<DepartmentNode> children) {
+
+    public static DepartmentNode of(Department department, List<DepartmentNode> children) {
+        return new DepartmentNode(
+            department.getDeptId(),
+            department.getDeptCode(),
+            department.getParentId(),
+            department.getParentCode(),
+            department.getAncestors(),
+            department.getDeptName(),
+            department.getLeader(),
+            department.getPhone(),
+            department.getEmail(),
+            department.getSortNo(),
+            department.getStatus(),
+            department.getRemark(),
+            List.copyOf(children)
+        );
+    }
+}
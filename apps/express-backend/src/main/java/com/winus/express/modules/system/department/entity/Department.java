@@ -1,5 +1,8 @@
 package com.winus.express.modules.system.department.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.winus.express.common.cache.SecondLevelCache;
 import com.winus.express.common.dto.BaseEntity;
 import com.winus.express.modules.system.user.entity.User;
 import jakarta.persistence.*;
@@ -9,6 +12,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +27,8 @@ import java.util.List;
 @ToString(exclude = {"children", "parent", "users"})
 @Entity
 @Table(name = "TB_DEPT")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.DEPARTMENT_REGION)
 public class Department extends BaseEntity {
 
     @Id
@@ -63,14 +70,20 @@ public class Department extends BaseEntity {
     @Column(name = "DEL_FLAG", length = 1, columnDefinition = "CHAR(1) DEFAULT '0'")
     private String delFlag = "0";
 
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version = 0L;
+
     @OneToMany(mappedBy = "parent", fetch = FetchType.LAZY)
     private List<Department> children = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PARENT_CODE", referencedColumnName = "DEPT_CODE", insertable = false, updatable = false)
+    @JsonIgnore
     private Department parent;
 
     @OneToMany(mappedBy = "department", fetch = FetchType.LAZY)
+    @JsonIgnoreProperties({"department", "roles"})
     private List<User> users = new ArrayList<>();
 
     // Constructor with essential fields
@@ -79,6 +92,11 @@ public class Department extends BaseEntity {
         this.deptName = deptName;
     }
 
+    @Override
+    public String getId() {
+        return deptId;
+    }
+
     // Utility methods
     public boolean isActive() {
         return "1".equals(status) && "0".equals(delFlag);
@@ -0,0 +1,7 @@
+package com.winus.express.modules.system.department.event;
+
+/**
+ * Published when a department row is written. Listeners react after the surrounding transaction commits.
+ */
+public record DepartmentChangedEvent(String deptId) {
+}
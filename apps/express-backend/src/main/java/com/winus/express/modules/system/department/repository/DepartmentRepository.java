@@ -1,8 +1,11 @@
 package com.winus.express.modules.system.department.repository;
 
 import com.winus.express.modules.system.department.entity.Department;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,6 +21,7 @@ public interface DepartmentRepository extends JpaRepository<Department, String>
     /**
      * Find all active departments ordered by sort number
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Department> findByStatusAndDelFlagOrderBySortNo(String status, String delFlag);
 
     /**
@@ -30,6 +34,8 @@ public interface DepartmentRepository extends JpaRepository<Department, String>
      */
     boolean existsByDeptCodeAndDelFlag(String deptCode, String delFlag);
 
+    boolean existsByDeptCodeAndDelFlagAndDeptIdNot(String deptCode, String delFlag, String deptId);
+
     /**
      * Search departments by keyword
      */
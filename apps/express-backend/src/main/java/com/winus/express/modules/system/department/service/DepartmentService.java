@@ -1,6 +1,8 @@
 package com.winus.express.modules.system.department.service;
 
+import com.winus.express.common.cache.CachedPayload;
 import com.winus.express.modules.system.department.dto.DepartmentDto;
+import com.winus.express.modules.system.department.dto.DepartmentNode;
 import com.winus.express.modules.system.department.entity.Department;
 
 import java.util.List;
@@ -17,7 +19,8 @@ public interface DepartmentService {
     Department createDepartment(DepartmentDto departmentDto);
 
     /**
-     * Update an existing department
+     * Update the non-null fields of an existing department; fails if {@code version} is set and stale.
+     * Returns the row as stored after the update
      */
     Department updateDepartment(String deptId, DepartmentDto departmentDto);
 
@@ -44,7 +47,12 @@ public interface DepartmentService {
     /**
      * Get department tree structure
      */
-    List<Department> getDepartmentTree();
+    List<DepartmentNode> getDepartmentTree();
+
+    /**
+     * Get department tree as a serialized payload, keyed by the department version
+     */
+    CachedPayload getDepartmentTreePayload();
 
     /**
      * Get departments by parent ID
@@ -72,7 +80,7 @@ public interface DepartmentService {
     long getUserCountByDepartment(String deptId);
 
     /**
-     * Build department tree from flat list
+     * Build department tree from a flat list in sort order
      */
-    List<Department> buildDepartmentTree(List<Department> departments);
+    List<DepartmentNode> buildDepartmentTree(List<Department> departments);
 }
\ No newline at end of file
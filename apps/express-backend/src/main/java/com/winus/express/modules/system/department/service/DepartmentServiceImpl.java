@@ -1,17 +1,26 @@
 package com.winus.express.modules.system.department.service;
 
+import com.winus.express.common.cache.AggregateVersions;
+import com.winus.express.common.cache.AggregateVersions.Aggregate;
+import com.winus.express.common.cache.CachedPayload;
+import com.winus.express.common.cache.PayloadCache;
+import com.winus.express.common.id.IdGenerator;
+import com.winus.express.common.jpa.PartialUpdates;
+import com.winus.express.common.util.TreeBuilder;
 import com.winus.express.modules.system.department.dto.DepartmentDto;
+import com.winus.express.modules.system.department.dto.DepartmentNode;
 import com.winus.express.modules.system.department.entity.Department;
+import com.winus.express.modules.system.department.event.DepartmentChangedEvent;
 import com.winus.express.modules.system.department.repository.DepartmentRepository;
 import com.winus.express.modules.system.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Department Service Implementation
@@ -22,8 +31,15 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class DepartmentServiceImpl implements DepartmentService {
 
+    private static final String DEPARTMENT_TREE_PAYLOAD = "departments:tree";
+
     private final DepartmentRepository departmentRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
+    private final PartialUpdates partialUpdates;
+    private final PayloadCache payloadCache;
+    private final AggregateVersions aggregateVersions;
 
     @Override
     @Transactional
@@ -34,7 +50,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         }
 
         Department department = new Department();
-        department.setDeptId(UUID.randomUUID().toString());
+        department.setDeptId(idGenerator.nextId());
         department.setDeptCode(departmentDto.getDeptCode());
         department.setDeptName(departmentDto.getDeptName());
         department.setParentId(departmentDto.getParentId() != null ? departmentDto.getParentId() : "0");
@@ -59,63 +75,46 @@ public class DepartmentServiceImpl implements DepartmentService {
             department.setAncestors("0");
         }
 
-        return departmentRepository.save(department);
+        Department savedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(savedDepartment.getDeptId()));
+        return savedDepartment;
     }
 
     @Override
     @Transactional
     public Department updateDepartment(String deptId, DepartmentDto departmentDto) {
-        Department department = departmentRepository.findById(deptId)
-            .orElseThrow(() -> new RuntimeException("부서를 찾을 수 없습니다: " + deptId));
-
         // Check if department code is being changed and already exists
-        if (departmentDto.getDeptCode() != null && !departmentDto.getDeptCode().equals(department.getDeptCode())) {
-            if (departmentRepository.existsByDeptCodeAndDelFlag(departmentDto.getDeptCode(), "0")) {
-                throw new RuntimeException("부서 코드가 이미 존재합니다: " + departmentDto.getDeptCode());
-            }
-            department.setDeptCode(departmentDto.getDeptCode());
-        }
-
-        if (departmentDto.getDeptName() != null) {
-            department.setDeptName(departmentDto.getDeptName());
-        }
-        if (departmentDto.getParentId() != null && !departmentDto.getParentId().equals(department.getParentId())) {
-            // Update parent and ancestors
-            department.setParentId(departmentDto.getParentId());
-            if (!"0".equals(departmentDto.getParentId())) {
-                Optional<Department> parentOpt = departmentRepository.findById(departmentDto.getParentId());
-                if (parentOpt.isPresent()) {
-                    Department parent = parentOpt.get();
-                    String ancestors = parent.getAncestors() + "," + parent.getDeptId();
-                    department.setAncestors(ancestors);
-                }
-            } else {
-                department.setAncestors("0");
-            }
-        }
-        if (departmentDto.getLeader() != null) {
-            department.setLeader(departmentDto.getLeader());
-        }
-        if (departmentDto.getPhone() != null) {
-            department.setPhone(departmentDto.getPhone());
-        }
-        if (departmentDto.getEmail() != null) {
-            department.setEmail(departmentDto.getEmail());
-        }
-        if (departmentDto.getSortNo() != null) {
-            department.setSortNo(departmentDto.getSortNo());
-        }
-        if (departmentDto.getStatus() != null) {
-            department.setStatus(departmentDto.getStatus());
-        }
-        if (departmentDto.getRemark() != null) {
-            department.setRemark(departmentDto.getRemark());
+        if (departmentDto.getDeptCode() != null
+            && departmentRepository.existsByDeptCodeAndDelFlagAndDeptIdNot(departmentDto.getDeptCode(), "0", deptId)) {
+            throw new RuntimeException("부서 코드가 이미 존재합니다: " + departmentDto.getDeptCode());
         }
 
-        department.setUpdateBy("system"); // TODO: Get from security context
-        department.setUpdateTime(LocalDateTime.now());
-
-        return departmentRepository.save(department);
+        // Ancestors follow the parent
+        String ancestors = null;
+        if (departmentDto.getParentId() != null) {
+            ancestors = "0".equals(departmentDto.getParentId()) ? "0"
+                : departmentRepository.findById(departmentDto.getParentId())
+                    .map(parent -> parent.getAncestors() + "," + parent.getDeptId())
+                    .orElse(null);
+        }
+
+        Department updated = partialUpdates.of(Department.class, deptId)
+            .set("deptCode", departmentDto.getDeptCode())
+            .set("deptName", departmentDto.getDeptName())
+            .set("parentId", departmentDto.getParentId())
+            .set("ancestors", ancestors)
+            .set("leader", departmentDto.getLeader())
+            .set("phone", departmentDto.getPhone())
+            .set("email", departmentDto.getEmail())
+            .set("sortNo", departmentDto.getSortNo())
+            .set("status", departmentDto.getStatus())
+            .set("remark", departmentDto.getRemark())
+            .set("updateBy", "system") // TODO: Get from security context
+            .expectVersion(departmentDto.getVersion())
+            .executeAndReload()
+            .orElseThrow(() -> new RuntimeException("부서를 찾을 수 없습니다: " + deptId));
+        eventPublisher.publishEvent(new DepartmentChangedEvent(deptId));
+        return updated;
     }
 
     @Override
@@ -142,6 +141,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         department.setUpdateTime(LocalDateTime.now());
 
         departmentRepository.save(department);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(deptId));
     }
 
     @Override
@@ -160,11 +160,17 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     @Override
-    public List<Department> getDepartmentTree() {
+    public List<DepartmentNode> getDepartmentTree() {
         List<Department> allDepartments = getAllDepartments();
         return buildDepartmentTree(allDepartments);
     }
 
+    @Override
+    public CachedPayload getDepartmentTreePayload() {
+        return payloadCache.get(DEPARTMENT_TREE_PAYLOAD, aggregateVersions.current(Aggregate.DEPARTMENTS),
+            this::getDepartmentTree);
+    }
+
     @Override
     public List<Department> getDepartmentsByParentId(String parentId) {
         String parentCode = "0";
@@ -200,12 +206,10 @@ public class DepartmentServiceImpl implements DepartmentService {
     @Override
     @Transactional
     public void updateDepartmentSort(String deptId, int sortNo) {
-        Department department = departmentRepository.findById(deptId)
-            .orElseThrow(() -> new RuntimeException("부서를 찾을 수 없습니다: " + deptId));
-
-        department.setSortNo(sortNo);
-        department.setUpdateTime(LocalDateTime.now());
-        departmentRepository.save(department);
+        if (!partialUpdates.of(Department.class, deptId).set("sortNo", sortNo).execute()) {
+            throw new RuntimeException("부서를 찾을 수 없습니다: " + deptId);
+        }
+        eventPublisher.publishEvent(new DepartmentChangedEvent(deptId));
     }
 
     @Override
@@ -217,40 +221,11 @@ public class DepartmentServiceImpl implements DepartmentService {
     }
 
     @Override
-    public List<Department> buildDepartmentTree(List<Department> departments) {
+    public List<DepartmentNode> buildDepartmentTree(List<Department> departments) {
         if (departments == null || departments.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        // Group departments by parent ID
-        Map<String, List<Department>> deptMap = departments.stream()
-            .collect(Collectors.groupingBy(
-                dept -> dept.getParentId() != null ? dept.getParentId() : "0"
-            ));
-
-        // Build tree structure
-        List<Department> rootDepartments = deptMap.getOrDefault("0", new ArrayList<>());
-
-        for (Department rootDept : rootDepartments) {
-            buildChildren(rootDept, deptMap);
-        }
-
-        // Sort by sortNo
-        rootDepartments.sort(Comparator.comparing(Department::getSortNo));
-
-        return rootDepartments;
-    }
-
-    private void buildChildren(Department parent, Map<String, List<Department>> deptMap) {
-        List<Department> children = deptMap.get(parent.getDeptId());
-
-        if (children != null && !children.isEmpty()) {
-            children.sort(Comparator.comparing(Department::getSortNo));
-            parent.setChildren(children);
-
-            for (Department child : children) {
-                buildChildren(child, deptMap);
-            }
+            return List.of();
         }
+        return TreeBuilder.build(departments, Department::getDeptId, Department::getParentId,
+            department -> TreeBuilder.sortKey(department.getSortNo()), DepartmentNode::of);
     }
-}
\ No newline at end of file
+}
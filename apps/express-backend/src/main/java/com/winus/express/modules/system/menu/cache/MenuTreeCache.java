@@ -0,0 +1,126 @@
+package com.winus.express.modules.system.menu.cache;
+
+import com.winus.express.common.cache.SecondLevelCache;
+import com.winus.express.modules.system.menu.dto.MenuNode;
+import com.winus.express.modules.system.menu.event.MenuChangedEvent;
+import com.winus.express.modules.system.menu.repository.MenuRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory snapshot of the active menu tree.
+ * Reads return the current immutable snapshot without locking or touching the database; only the
+ * first read, or a read after a failed rebuild, loads the menus.
+ * Every committed menu write bumps the generation and rebuilds the snapshot on the writing thread
+ * (readers keep the previous snapshot meanwhile); the change is broadcast so other nodes rebuild
+ * too. A snapshot built for an older generation never replaces a newer one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuTreeCache {
+
+    static final String CHANNEL = "menu:tree:changed";
+
+    private static final String ACTIVE = "1";
+    private static final String NOT_DELETED = "0";
+
+    private final MenuRepository menuRepository;
+    private final SecondLevelCache secondLevelCache;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong generation = new AtomicLong(1);
+    private final AtomicReference<MenuTreeSnapshot> current = new AtomicReference<>();
+    private volatile boolean rebuildFailed;
+
+    private Counter rebuildCounter;
+
+    @PostConstruct
+    void init() {
+        rebuildCounter = Counter.builder("menu.tree.rebuilds")
+            .description("Menu tree snapshot rebuilds")
+            .register(meterRegistry);
+        Gauge.builder("menu.tree.version", generation, AtomicLong::get)
+            .description("Current menu tree generation")
+            .register(meterRegistry);
+        listenerContainer.addMessageListener(this::onChangedMessage, new ChannelTopic(CHANNEL));
+    }
+
+    public List<MenuNode> getTree() {
+        return snapshot().roots();
+    }
+
+    public MenuTreeSnapshot snapshot() {
+        MenuTreeSnapshot snapshot = current.get();
+        if (snapshot != null && !rebuildFailed) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = current.get();
+            if (snapshot != null && !rebuildFailed) {
+                return snapshot;
+            }
+            return rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        invalidate();
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Could not broadcast menu tree change, other nodes keep their snapshot: {}", e.getMessage());
+        }
+    }
+
+    private void onChangedMessage(Message message, byte[] pattern) {
+        if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            secondLevelCache.evict(SecondLevelCache.Scope.MENUS);
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // The next read retries
+            rebuildFailed = true;
+            log.warn("Could not rebuild menu tree snapshot: {}", e.getMessage());
+        }
+    }
+
+    private MenuTreeSnapshot rebuild() {
+        long version = generation.get();
+        MenuTreeSnapshot built = MenuTreeSnapshot.build(version,
+            menuRepository.findByStatusAndDelFlagOrderBySortNo(ACTIVE, NOT_DELETED));
+        rebuildCounter.increment();
+        if (version == generation.get()) {
+            rebuildFailed = false;
+        }
+        return current.accumulateAndGet(built,
+            (existing, candidate) -> existing == null || existing.version() < candidate.version() ? candidate : existing);
+    }
+}
@@ -0,0 +1,23 @@
+package com.winus.express.modules.system.menu.cache;
+
+import com.winus.express.common.util.TreeBuilder;
+import com.winus.express.modules.system.menu.dto.MenuNode;
+import com.winus.express.modules.system.menu.entity.Menu;
+
+import java.util.List;
+
+/**
+ * Immutable tree of the active menus at one version.
+ *
+ * @param version generation the snapshot was built for; a newer generation makes it stale
+ */
+public record MenuTreeSnapshot(long version, List<MenuNode> roots) {
+
+    /**
+     * Build the tree from a flat list; menus whose parent is not in the list are dropped.
+     */
+    public static MenuTreeSnapshot build(long version, List<Menu> menus) {
+        return new MenuTreeSnapshot(version, TreeBuilder.build(menus, Menu::getMenuId, Menu::getParentId,
+            menu -> TreeBuilder.sortKey(menu.getSortNo()), MenuNode::of));
+    }
+}
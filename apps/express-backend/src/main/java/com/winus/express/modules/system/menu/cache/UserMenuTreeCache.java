@@ -0,0 +1,209 @@
+package com.winus.express.modules.system.menu.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.winus.express.common.cache.SecondLevelCache;
+import com.winus.express.common.util.JwtUtil;
+import com.winus.express.modules.system.menu.dto.MenuNode;
+import com.winus.express.modules.system.menu.entity.Menu;
+import com.winus.express.modules.system.role.entity.Role;
+import com.winus.express.modules.system.role.repository.RoleRepository;
+import com.winus.express.security.event.UserSecurityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user menu trees memoized by role signature.
+ * A signature is the sorted set of the user's active role codes, so all users holding the same roles
+ * share one immutable tree. Trees are cut from the {@link MenuTreeCache} snapshot using a role to
+ * menu-id index, and an entry is reused only while both the menu snapshot version and the index
+ * generation it was built from are current; role-menu and menu changes therefore invalidate it
+ * without any TTL. Role changes are broadcast so other nodes reload their index.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserMenuTreeCache {
+
+    static final String CHANNEL = "menu:role-menus:changed";
+
+    private static final String VISIBLE = "1";
+    private static final int MAX_SIGNATURES = 1000;
+    private static final Set<UserSecurityChangedEvent.Reason> ROLE_REASONS = EnumSet.of(
+        UserSecurityChangedEvent.Reason.ROLE_MENUS_CHANGED,
+        UserSecurityChangedEvent.Reason.ROLE_UPDATED,
+        UserSecurityChangedEvent.Reason.ROLES_CHANGED);
+
+    private final MenuTreeCache menuTreeCache;
+    private final RoleRepository roleRepository;
+    private final SecondLevelCache secondLevelCache;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong roleGeneration = new AtomicLong(1);
+    /** Bounded by signature count; past the limit single entries are evicted, not the whole cache */
+    private final Cache<String, UserMenuTree> trees = Caffeine.newBuilder().maximumSize(MAX_SIGNATURES).build();
+    private volatile RoleMenuIndex roleMenuIndex;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @PostConstruct
+    void init() {
+        hitCounter = lookupCounter("hit");
+        missCounter = lookupCounter("miss");
+        listenerContainer.addMessageListener(this::onChangedMessage, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Menu tree for a caller holding the given authorities (only {@code ROLE_} authorities count).
+     */
+    public List<MenuNode> getTree(Collection<? extends GrantedAuthority> authorities) {
+        String signature = signature(authorities);
+        MenuTreeSnapshot snapshot = menuTreeCache.snapshot();
+        RoleMenuIndex index = roleMenuIndex();
+
+        UserMenuTree tree = trees.getIfPresent(signature);
+        if (tree != null && tree.menuVersion() == snapshot.version() && tree.roleGeneration() == index.generation()) {
+            hitCounter.increment();
+            return tree.roots();
+        }
+
+        missCounter.increment();
+        Set<String> granted = index.menuIds(signature);
+        tree = new UserMenuTree(snapshot.version(), index.generation(), filter(snapshot.roots(), granted));
+        trees.put(signature, tree);
+        return tree.roots();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (!ROLE_REASONS.contains(event.reason())) {
+            return;
+        }
+        invalidate();
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Could not broadcast role menu change, other nodes keep their menu trees: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Canonical role signature: sorted, distinct role codes without the {@code ROLE_} prefix.
+     */
+    static String signature(Collection<? extends GrantedAuthority> authorities) {
+        TreeSet<String> roles = new TreeSet<>();
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(JwtUtil.ROLE_PREFIX)) {
+                roles.add(name.substring(JwtUtil.ROLE_PREFIX.length()));
+            }
+        }
+        return String.join(",", roles);
+    }
+
+    /**
+     * Keep the visible nodes the signature grants; a node is reachable only through a granted parent.
+     */
+    static List<MenuNode> filter(List<MenuNode> nodes, Set<String> granted) {
+        List<MenuNode> kept = new ArrayList<>();
+        for (MenuNode node : nodes) {
+            if (granted.contains(node.menuId()) && VISIBLE.equals(node.visible())) {
+                kept.add(new MenuNode(node.menuId(), node.parentId(), node.menuName(), node.menuPath(),
+                    node.component(), node.menuType(), node.permission(), node.icon(), node.sortNo(),
+                    node.visible(), node.status(), node.isFrame(), node.isCache(), node.remark(),
+                    filter(node.children(), granted)));
+            }
+        }
+        return List.copyOf(kept);
+    }
+
+    private void onChangedMessage(Message message, byte[] pattern) {
+        if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            secondLevelCache.evict(SecondLevelCache.Scope.ROLES, SecondLevelCache.Scope.ROLE_MENUS);
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        roleGeneration.incrementAndGet();
+        roleMenuIndex = null;
+    }
+
+    private RoleMenuIndex roleMenuIndex() {
+        RoleMenuIndex index = roleMenuIndex;
+        if (index != null && index.generation() == roleGeneration.get()) {
+            return index;
+        }
+        synchronized (this) {
+            index = roleMenuIndex;
+            if (index != null && index.generation() == roleGeneration.get()) {
+                return index;
+            }
+            long generation = roleGeneration.get();
+            Map<String, Set<String>> menuIdsByRole = new HashMap<>();
+            for (Role role : roleRepository.findRolesWithMenus()) {
+                Set<String> menuIds = menuIdsByRole.computeIfAbsent(role.getRoleCode().toUpperCase(), key -> new HashSet<>());
+                for (Menu menu : role.getMenus()) {
+                    menuIds.add(menu.getMenuId());
+                }
+            }
+            index = new RoleMenuIndex(generation, menuIdsByRole);
+            if (generation == roleGeneration.get()) {
+                roleMenuIndex = index;
+            }
+            return index;
+        }
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("menu.user.tree.lookup")
+            .description("User menu tree lookups by role signature")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record UserMenuTree(long menuVersion, long roleGeneration, List<MenuNode> roots) {
+    }
+
+    private record RoleMenuIndex(long generation, Map<String, Set<String>> menuIdsByRole) {
+
+        Set<String> menuIds(String signature) {
+            if (signature.isEmpty()) {
+                return Set.of();
+            }
+            Set<String> menuIds = new HashSet<>();
+            for (String role : signature.split(",")) {
+                menuIds.addAll(menuIdsByRole.getOrDefault(role, Set.of()));
+            }
+            return menuIds;
+        }
+    }
+}
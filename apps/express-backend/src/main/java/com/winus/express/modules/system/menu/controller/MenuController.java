@@ -1,12 +1,18 @@
 package com.winus.express.modules.system.menu.controller;
 
+import com.winus.express.common.annotation.ApiLogging;
+import com.winus.express.common.annotation.ApiLogging.LogLevel;
 import com.winus.express.common.dto.ApiResponse;
 import com.winus.express.modules.system.menu.dto.MenuDto;
+import com.winus.express.modules.system.menu.dto.MenuNode;
 import com.winus.express.modules.system.menu.entity.Menu;
 import com.winus.express.modules.system.menu.service.MenuService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +26,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MenuController {
 
+    private static final String VERSION_CONFLICT_MESSAGE = "다른 사용자가 먼저 수정했습니다. 새로고침 후 다시 시도해 주세요.";
+
     private final MenuService menuService;
 
     @GetMapping
@@ -31,14 +39,16 @@ public class MenuController {
 
     @GetMapping("/tree")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MENU_VIEW')")
-    public ResponseEntity<List<Menu>> getMenuTree() {
-        List<Menu> menuTree = menuService.getMenuTree();
-        return ResponseEntity.ok(menuTree);
+    public ResponseEntity<byte[]> getMenuTree(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return menuService.getMenuTreePayload().toResponse(acceptEncoding, ifNoneMatch);
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Menu>> getUserMenus(@PathVariable String userId) {
-        List<Menu> userMenus = menuService.getUserMenus(userId);
+    @ApiLogging(level = LogLevel.BASIC)
+    public ResponseEntity<List<MenuNode>> getUserMenus(@PathVariable String userId) {
+        List<MenuNode> userMenus = menuService.getUserMenus(userId);
         return ResponseEntity.ok(userMenus);
     }
 
@@ -71,6 +81,9 @@ public class MenuController {
         try {
             Menu updatedMenu = menuService.updateMenu(menuId, menuDto);
             return ResponseEntity.ok(ApiResponse.success("메뉴 정보가 성공적으로 업데이트되었습니다.", updatedMenu));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(VERSION_CONFLICT_MESSAGE, "VERSION_CONFLICT"));
         } catch (RuntimeException e) {
             log.error("Failed to update menu: {}", menuId, e);
             return ResponseEntity.badRequest()
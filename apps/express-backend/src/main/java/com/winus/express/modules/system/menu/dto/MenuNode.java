@@ -0,0 +1,45 @@
+package com.winus.express.modules.system.menu.dto;
+
+import com.winus.express.modules.system.menu.entity.Menu;
+
+import java.util.List;
+
+/**
+ * Immutable menu tree node, detached from the persistence context.
+ */
+public record MenuNode(String menuId,
+                       String parentId,
+                       String menuName,
+                       String menuPath,
+                       String component,
+                       String menuType,
+                       String permission,
+                       String icon,
+                       Integer sortNo,
+                       String visible,
+                       String status,
+                       String isFrame,
+                       String isCache,
+                       String remark,
+                       List<MenuNode> children) {
+
+    public static MenuNode of(Menu menu, List<MenuNode> children) {
+        return new MenuNode(
+            menu.getMenuId(),
+            menu.getParentId(),
+            menu.getMenuName(),
+            menu.getMenuPath(),
+            menu.getComponent(),
+            menu.getMenuType(),
+            menu.getPermission(),
+            menu.getIcon(),
+            menu.getSortNo(),
+            menu.getVisible(),
+            menu.getStatus(),
+            menu.getIsFrame(),
+            menu.getIsCache(),
+            menu.getRemark(),
+            List.copyOf(children)
+        );
+    }
+}
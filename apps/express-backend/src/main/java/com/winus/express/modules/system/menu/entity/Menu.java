@@ -1,5 +1,8 @@
 package com.winus.express.modules.system.menu.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.winus.express.common.cache.SecondLevelCache;
 import com.winus.express.common.dto.BaseEntity;
 import com.winus.express.modules.system.role.entity.Role;
 import jakarta.persistence.*;
@@ -9,6 +12,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -24,8 +29,19 @@ import java.util.Set;
 @ToString(exclude = {"roles", "children", "parent"})
 @Entity
 @Table(name = "TB_MENU")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.MENU_REGION)
+@NamedEntityGraph(name = Menu.WITH_ROLES_AND_CHILDREN, attributeNodes = {
+    @NamedAttributeNode("roles"),
+    @NamedAttributeNode("children")
+})
 public class Menu extends BaseEntity {
 
+    /**
+     * Menu detail; lists batch fetch both collections instead
+     */
+    public static final String WITH_ROLES_AND_CHILDREN = "Menu.withRolesAndChildren";
+
     @Id
     @Column(name = "MENU_ID", length = 20)
     private String menuId;
@@ -72,7 +88,12 @@ public class Menu extends BaseEntity {
     @Column(name = "DEL_FLAG", length = 1, columnDefinition = "CHAR(1) DEFAULT '0'")
     private String delFlag = "0";
 
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version = 0L;
+
     @ManyToMany(mappedBy = "menus", fetch = FetchType.LAZY)
+    @JsonIgnoreProperties({"menus", "users"})
     private Set<Role> roles = new HashSet<>();
 
     @OneToMany(mappedBy = "parent", fetch = FetchType.LAZY)
@@ -80,6 +101,7 @@ public class Menu extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PARENT_ID", referencedColumnName = "MENU_ID", insertable = false, updatable = false)
+    @JsonIgnore
     private Menu parent;
 
     // Constructor with essential fields
@@ -89,6 +111,11 @@ public class Menu extends BaseEntity {
         this.menuType = menuType;
     }
 
+    @Override
+    public String getId() {
+        return menuId;
+    }
+
     // Utility methods
     public boolean isVisible() {
         return "1".equals(visible);
@@ -0,0 +1,21 @@
+package com.winus.express.modules.system.menu.event;
+
+/**
+ * Published when a menu row is written. Listeners react after the surrounding transaction commits.
+ */
+public record MenuChangedEvent(String menuId, Type type) {
+
+    /**
+     * Whether the change can alter effective permission codes (PERMS, STATUS or deletion).
+     */
+    public boolean affectsPermissions() {
+        return type == Type.UPDATED || type == Type.DELETED;
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        SORTED
+    }
+}
@@ -1,8 +1,12 @@
 package com.winus.express.modules.system.menu.repository;
 
 import com.winus.express.modules.system.menu.entity.Menu;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -77,20 +81,6 @@ public interface MenuRepository extends JpaRepository<Menu, String> {
            "(m.menuName LIKE %:keyword% OR m.menuPath LIKE %:keyword% OR m.perms LIKE %:keyword%)")
     List<Menu> searchMenus(@Param("keyword") String keyword);
 
-    /**
-     * Find permissions by user ID
-     */
-    @Query("SELECT DISTINCT m.perms FROM Menu m " +
-           "JOIN m.roles r " +
-           "JOIN r.users u " +
-           "WHERE u.userId = :userId " +
-           "AND m.perms IS NOT NULL " +
-           "AND m.perms != '' " +
-           "AND m.status = '1' " +
-           "AND r.status = '1' " +
-           "AND r.delFlag = '0'")
-    List<String> findPermissionsByUserId(@Param("userId") String userId);
-
     /**
      * Count menus by parent ID
      */
@@ -99,11 +89,13 @@ public interface MenuRepository extends JpaRepository<Menu, String> {
     /**
      * Find menu by ID and delete flag
      */
+    @EntityGraph(Menu.WITH_ROLES_AND_CHILDREN)
     Optional<Menu> findByMenuIdAndDelFlag(String menuId, String delFlag);
 
     /**
      * Find menus by status and delete flag
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Menu> findByStatusAndDelFlagOrderBySortNo(String status, String delFlag);
 
     /**
@@ -1,6 +1,8 @@
 package com.winus.express.modules.system.menu.service;
 
+import com.winus.express.common.cache.CachedPayload;
 import com.winus.express.modules.system.menu.dto.MenuDto;
+import com.winus.express.modules.system.menu.dto.MenuNode;
 import com.winus.express.modules.system.menu.entity.Menu;
 
 import java.util.List;
@@ -17,7 +19,8 @@ public interface MenuService {
     Menu createMenu(MenuDto menuDto);
 
     /**
-     * Update an existing menu
+     * Update the non-null fields of an existing menu; fails if {@code version} is set and stale.
+     * Returns the row as stored after the update
      */
     Menu updateMenu(String menuId, MenuDto menuDto);
 
@@ -37,9 +40,14 @@ public interface MenuService {
     List<Menu> getAllMenus();
 
     /**
-     * Get menu tree structure
+     * Get the active menu tree (served from the in-memory snapshot)
      */
-    List<Menu> getMenuTree();
+    List<MenuNode> getMenuTree();
+
+    /**
+     * Get the active menu tree as a serialized payload, keyed by snapshot version
+     */
+    CachedPayload getMenuTreePayload();
 
     /**
      * Get menus by parent ID
@@ -52,9 +60,9 @@ public interface MenuService {
     List<Menu> getMenusByType(String menuType);
 
     /**
-     * Get user menus (based on roles)
+     * Get the user's menu tree (shared by all users with the same active roles)
      */
-    List<Menu> getUserMenus(String userId);
+    List<MenuNode> getUserMenus(String userId);
 
     /**
      * Get permission menus
@@ -72,7 +80,7 @@ public interface MenuService {
     boolean existsByMenuPath(String menuPath, String excludeMenuId);
 
     /**
-     * Build menu tree from flat list
+     * Build menu tree from a flat list in sort order
      */
-    List<Menu> buildMenuTree(List<Menu> menus);
+    List<MenuNode> buildMenuTree(List<Menu> menus);
 }
\ No newline at end of file
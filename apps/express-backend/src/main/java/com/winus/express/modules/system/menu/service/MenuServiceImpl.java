@@ -1,10 +1,27 @@
 package com.winus.express.modules.system.menu.service;
 
+import com.winus.express.common.cache.CachedPayload;
+import com.winus.express.common.cache.PayloadCache;
+import com.winus.express.common.id.IdGenerator;
+import com.winus.express.common.jpa.PartialUpdates;
+import com.winus.express.common.util.TreeBuilder;
+import com.winus.express.modules.system.menu.cache.MenuTreeCache;
+import com.winus.express.modules.system.menu.cache.MenuTreeSnapshot;
+import com.winus.express.modules.system.menu.cache.UserMenuTreeCache;
 import com.winus.express.modules.system.menu.dto.MenuDto;
+import com.winus.express.modules.system.menu.dto.MenuNode;
 import com.winus.express.modules.system.menu.entity.Menu;
+import com.winus.express.modules.system.menu.event.MenuChangedEvent;
 import com.winus.express.modules.system.menu.repository.MenuRepository;
+import com.winus.express.security.principal.CustomUserPrincipal;
+import com.winus.express.security.provider.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,13 +38,22 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class MenuServiceImpl implements MenuService {
 
+    private static final String MENU_TREE_PAYLOAD = "menus:tree";
+
     private final MenuRepository menuRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
+    private final PartialUpdates partialUpdates;
+    private final MenuTreeCache menuTreeCache;
+    private final UserMenuTreeCache userMenuTreeCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final PayloadCache payloadCache;
 
     @Override
     @Transactional
     public Menu createMenu(MenuDto menuDto) {
         Menu menu = new Menu();
-        menu.setMenuId(UUID.randomUUID().toString());
+        menu.setMenuId(idGenerator.nextId());
         menu.setMenuName(menuDto.getMenuName());
         menu.setParentId(menuDto.getParentId() != null ? menuDto.getParentId() : "0");
         menu.setMenuPath(menuDto.getMenuPath());
@@ -42,53 +68,32 @@ public class MenuServiceImpl implements MenuService {
         menu.setCreateBy("system"); // TODO: Get from security context
         menu.setDelFlag("0");
 
-        return menuRepository.save(menu);
+        Menu savedMenu = menuRepository.save(menu);
+        eventPublisher.publishEvent(new MenuChangedEvent(savedMenu.getMenuId(), MenuChangedEvent.Type.CREATED));
+        return savedMenu;
     }
 
     @Override
     @Transactional
     public Menu updateMenu(String menuId, MenuDto menuDto) {
-        Menu menu = menuRepository.findById(menuId)
+        Menu updated = partialUpdates.of(Menu.class, menuId)
+            .set("menuName", menuDto.getMenuName())
+            .set("parentId", menuDto.getParentId())
+            .set("menuPath", menuDto.getMenuPath())
+            .set("component", menuDto.getComponent())
+            .set("menuType", menuDto.getMenuType())
+            .set("permission", menuDto.getPermission())
+            .set("icon", menuDto.getIcon())
+            .set("sortNo", menuDto.getSortNo())
+            .set("visible", menuDto.getVisible())
+            .set("status", menuDto.getStatus())
+            .set("remark", menuDto.getRemark())
+            .set("updateBy", "system") // TODO: Get from security context
+            .expectVersion(menuDto.getVersion())
+            .executeAndReload()
             .orElseThrow(() -> new RuntimeException("메뉴를 찾을 수 없습니다: " + menuId));
-
-        if (menuDto.getMenuName() != null) {
-            menu.setMenuName(menuDto.getMenuName());
-        }
-        if (menuDto.getParentId() != null) {
-            menu.setParentId(menuDto.getParentId());
-        }
-        if (menuDto.getMenuPath() != null) {
-            menu.setMenuPath(menuDto.getMenuPath());
-        }
-        if (menuDto.getComponent() != null) {
-            menu.setComponent(menuDto.getComponent());
-        }
-        if (menuDto.getMenuType() != null) {
-            menu.setMenuType(menuDto.getMenuType());
-        }
-        if (menuDto.getPermission() != null) {
-            menu.setPermission(menuDto.getPermission());
-        }
-        if (menuDto.getIcon() != null) {
-            menu.setIcon(menuDto.getIcon());
-        }
-        if (menuDto.getSortNo() != null) {
-            menu.setSortNo(menuDto.getSortNo());
-        }
-        if (menuDto.getVisible() != null) {
-            menu.setVisible(menuDto.getVisible());
-        }
-        if (menuDto.getStatus() != null) {
-            menu.setStatus(menuDto.getStatus());
-        }
-        if (menuDto.getRemark() != null) {
-            menu.setRemark(menuDto.getRemark());
-        }
-
-        menu.setUpdateBy("system"); // TODO: Get from security context
-        menu.setUpdateTime(LocalDateTime.now());
-
-        return menuRepository.save(menu);
+        eventPublisher.publishEvent(new MenuChangedEvent(menuId, MenuChangedEvent.Type.UPDATED));
+        return updated;
     }
 
     @Override
@@ -108,6 +113,7 @@ public class MenuServiceImpl implements MenuService {
         menu.setUpdateTime(LocalDateTime.now());
 
         menuRepository.save(menu);
+        eventPublisher.publishEvent(new MenuChangedEvent(menuId, MenuChangedEvent.Type.DELETED));
     }
 
     @Override
@@ -121,9 +127,14 @@ public class MenuServiceImpl implements MenuService {
     }
 
     @Override
-    public List<Menu> getMenuTree() {
-        List<Menu> allMenus = getAllMenus();
-        return buildMenuTree(allMenus);
+    public List<MenuNode> getMenuTree() {
+        return menuTreeCache.getTree();
+    }
+
+    @Override
+    public CachedPayload getMenuTreePayload() {
+        MenuTreeSnapshot snapshot = menuTreeCache.snapshot();
+        return payloadCache.get(MENU_TREE_PAYLOAD, snapshot.version(), snapshot::roots);
     }
 
     @Override
@@ -138,9 +149,8 @@ public class MenuServiceImpl implements MenuService {
     }
 
     @Override
-    public List<Menu> getUserMenus(String userId) {
-        List<Menu> userMenus = menuRepository.findMenusByUserId(userId);
-        return buildMenuTree(userMenus);
+    public List<MenuNode> getUserMenus(String userId) {
+        return userMenuTreeCache.getTree(authoritiesOf(userId));
     }
 
     @Override
@@ -151,12 +161,31 @@ public class MenuServiceImpl implements MenuService {
     @Override
     @Transactional
     public void updateMenuSort(String menuId, int sortNo) {
-        Menu menu = menuRepository.findById(menuId)
-            .orElseThrow(() -> new RuntimeException("메뉴를 찾을 수 없습니다: " + menuId));
+        boolean updated = partialUpdates.of(Menu.class, menuId)
+            .set("sortNo", sortNo)
+            .set("updateBy", "system") // TODO: Get from security context
+            .execute();
+        if (!updated) {
+            throw new RuntimeException("메뉴를 찾을 수 없습니다: " + menuId);
+        }
+        eventPublisher.publishEvent(new MenuChangedEvent(menuId, MenuChangedEvent.Type.SORTED));
+    }
 
-        menu.setSortNo(sortNo);
-        menu.setUpdateTime(LocalDateTime.now());
-        menuRepository.save(menu);
+    /**
+     * Roles of the caller from the authenticated principal (token or principal cache),
+     * or of another user through the principal cache
+     */
+    private Collection<? extends GrantedAuthority> authoritiesOf(String userId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserPrincipal principal
+            && userId.equals(principal.getUserId())) {
+            return principal.getAuthorities();
+        }
+        try {
+            return userDetailsService.loadUserByUserId(userId).getAuthorities();
+        } catch (UsernameNotFoundException e) {
+            return List.of();
+        }
     }
 
     @Override
@@ -173,40 +202,11 @@ public class MenuServiceImpl implements MenuService {
     }
 
     @Override
-    public List<Menu> buildMenuTree(List<Menu> menus) {
+    public List<MenuNode> buildMenuTree(List<Menu> menus) {
         if (menus == null || menus.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        // Group menus by parent ID
-        Map<String, List<Menu>> menuMap = menus.stream()
-            .collect(Collectors.groupingBy(
-                menu -> menu.getParentId() != null ? menu.getParentId() : "0"
-            ));
-
-        // Build tree structure
-        List<Menu> rootMenus = menuMap.getOrDefault("0", new ArrayList<>());
-
-        for (Menu rootMenu : rootMenus) {
-            buildChildren(rootMenu, menuMap);
-        }
-
-        // Sort by sortNo
-        rootMenus.sort(Comparator.comparing(Menu::getSortNo));
-
-        return rootMenus;
-    }
-
-    private void buildChildren(Menu parent, Map<String, List<Menu>> menuMap) {
-        List<Menu> children = menuMap.get(parent.getMenuId());
-
-        if (children != null && !children.isEmpty()) {
-            children.sort(Comparator.comparing(Menu::getSortNo));
-            parent.setChildren(children);
-
-            for (Menu child : children) {
-                buildChildren(child, menuMap);
-            }
+            return List.of();
         }
+        return TreeBuilder.build(menus, Menu::getMenuId, Menu::getParentId,
+            menu -> TreeBuilder.sortKey(menu.getSortNo()), MenuNode::of);
     }
-}
\ No newline at end of file
+}
@@ -8,10 +8,13 @@ import com.winus.express.modules.system.role.service.RoleService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +28,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class RoleController {
 
+    private static final String VERSION_CONFLICT_MESSAGE = "다른 사용자가 먼저 수정했습니다. 새로고침 후 다시 시도해 주세요.";
+
     private final RoleService roleService;
 
     @GetMapping
@@ -57,9 +62,10 @@ public class RoleController {
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ROLE_VIEW')")
-    public ResponseEntity<List<Role>> getAllRoles() {
-        List<Role> roles = roleService.getAllActiveRoles();
-        return ResponseEntity.ok(roles);
+    public ResponseEntity<byte[]> getAllRoles(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return roleService.getAllActiveRolesPayload().toResponse(acceptEncoding, ifNoneMatch);
     }
 
     @GetMapping("/{roleId}")
@@ -91,6 +97,9 @@ public class RoleController {
         try {
             Role updatedRole = roleService.updateRole(roleId, roleDto);
             return ResponseEntity.ok(ApiResponse.success("역할 정보가 성공적으로 업데이트되었습니다.", updatedRole));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(VERSION_CONFLICT_MESSAGE, "VERSION_CONFLICT"));
         } catch (RuntimeException e) {
             log.error("Failed to update role: {}", roleId, e);
             return ResponseEntity.badRequest()
@@ -28,5 +28,8 @@ public class RoleDto {
     private Integer sortNo;
     private String remark;
 
+    // Version the client read; when set, the update fails if someone else changed the row since
+    private Long version;
+
     private List<String> menuIds;
 }
\ No newline at end of file
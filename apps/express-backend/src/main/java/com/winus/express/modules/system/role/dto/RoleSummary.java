@@ -0,0 +1,29 @@
+package com.winus.express.modules.system.role.dto;
+
+import com.winus.express.modules.system.role.entity.Role;
+
+/**
+ * Role without its user and menu associations, detached from the persistence context.
+ */
+public record RoleSummary(String roleId,
+                          String roleName,
+                          String roleCode,
+                          String description,
+                          Integer sortNo,
+                          String status,
+                          String dataScope,
+                          String remark) {
+
+    public static RoleSummary of(Role role) {
+        return new RoleSummary(
+            role.getRoleId(),
+            role.getRoleName(),
+            role.getRoleCode(),
+            role.getDescription(),
+            role.getSortNo(),
+            role.getStatus(),
+            role.getDataScope(),
+            role.getRemark()
+        );
+    }
+}
@@ -1,5 +1,8 @@
 package com.winus.express.modules.system.role.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.winus.express.common.cache.SecondLevelCache;
 import com.winus.express.common.dto.BaseEntity;
 import com.winus.express.modules.system.user.entity.User;
 import com.winus.express.modules.system.menu.entity.Menu;
@@ -10,6 +13,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -23,8 +28,17 @@ import java.util.Set;
 @ToString(exclude = {"users", "menus"})
 @Entity
 @Table(name = "TB_ROLE")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.ROLE_REGION)
+@NamedEntityGraph(name = Role.WITH_MENUS, attributeNodes = @NamedAttributeNode("menus"))
 public class Role extends BaseEntity {
 
+    /**
+     * Role detail. Users are not joined as well: menus x users rows would multiply. Paged lists batch
+     * fetch the menus instead.
+     */
+    public static final String WITH_MENUS = "Role.withMenus";
+
     @Id
     @Column(name = "ROLE_ID", length = 20)
     private String roleId;
@@ -55,15 +69,25 @@ public class Role extends BaseEntity {
     @Column(name = "DEL_FLAG", length = 1, columnDefinition = "CHAR(1) DEFAULT '0'")
     private String delFlag = "0";
 
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private Long version = 0L;
+
+    /**
+     * Not serialized: a role can hold any number of users, and user detail already lists its roles
+     */
     @ManyToMany(mappedBy = "roles", fetch = FetchType.LAZY)
+    @JsonIgnore
     private Set<User> users = new HashSet<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.ROLE_MENUS_REGION)
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "TB_ROLE_MENU",
         joinColumns = @JoinColumn(name = "ROLE_ID"),
         inverseJoinColumns = @JoinColumn(name = "MENU_ID")
     )
+    @JsonIgnoreProperties({"roles", "children"})
     private Set<Menu> menus = new HashSet<>();
 
     // Constructor with essential fields
@@ -73,6 +97,11 @@ public class Role extends BaseEntity {
         this.roleCode = roleCode;
     }
 
+    @Override
+    public String getId() {
+        return roleId;
+    }
+
     // Utility methods
     public boolean isActive() {
         return "1".equals(status) && "0".equals(delFlag);
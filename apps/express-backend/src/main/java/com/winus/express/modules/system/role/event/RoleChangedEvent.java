@@ -0,0 +1,8 @@
+package com.winus.express.modules.system.role.event;
+
+/**
+ * Published when a role row is created, updated or deleted. Listeners react after the surrounding
+ * transaction commits.
+ */
+public record RoleChangedEvent(String roleId) {
+}
@@ -0,0 +1,16 @@
+package com.winus.express.modules.system.role.event;
+
+import java.util.List;
+
+/**
+ * Published when a role's menu assignment is replaced. Listeners react after the surrounding transaction commits.
+ *
+ * @param roleCode    code of the changed role
+ * @param permissions permission codes of the role's active menus after the change
+ */
+public record RoleMenusChangedEvent(String roleCode, List<String> permissions) {
+
+    public RoleMenusChangedEvent {
+        permissions = List.copyOf(permissions);
+    }
+}
@@ -1,13 +1,18 @@
 package com.winus.express.modules.system.role.repository;
 
 import com.winus.express.modules.system.role.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +30,7 @@ public interface RoleRepository extends JpaRepository<Role, String> {
     /**
      * Find all active roles
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Role> findByStatusAndDelFlagOrderBySortNo(String status, String delFlag);
 
     /**
@@ -37,6 +43,8 @@ public interface RoleRepository extends JpaRepository<Role, String> {
      */
     boolean existsByRoleCodeAndDelFlag(String roleCode, String delFlag);
 
+    boolean existsByRoleCodeAndDelFlagAndRoleIdNot(String roleCode, String delFlag, String roleId);
+
     /**
      * Search roles by keyword
      */
@@ -47,6 +55,7 @@ public interface RoleRepository extends JpaRepository<Role, String> {
     /**
      * Find role by ID and delete flag
      */
+    @EntityGraph(Role.WITH_MENUS)
     Optional<Role> findByRoleIdAndDelFlag(String roleId, String delFlag);
 
     /**
@@ -60,6 +69,14 @@ public interface RoleRepository extends JpaRepository<Role, String> {
     @Query("SELECT r FROM Role r JOIN r.users u WHERE u.userId = :userId AND r.delFlag = '0' AND r.status = '1'")
     List<Role> findByUserId(@Param("userId") String userId);
 
+    /**
+     * Distinct permission codes of the active menus of the given active roles (login projection)
+     */
+    @Query("SELECT DISTINCT m.perms FROM Role r JOIN r.menus m " +
+           "WHERE r.roleCode IN :roleCodes AND r.status = '1' AND r.delFlag = '0' " +
+           "AND m.status = '1' AND m.perms IS NOT NULL")
+    List<String> findPermissionCodesByRoleCodes(@Param("roleCodes") Collection<String> roleCodes);
+
     /**
      * Find roles with menu permissions
      */
@@ -1,5 +1,6 @@
 package com.winus.express.modules.system.role.service;
 
+import com.winus.express.common.cache.CachedPayload;
 import com.winus.express.modules.system.role.dto.RoleDto;
 import com.winus.express.modules.system.role.entity.Role;
 import org.springframework.data.domain.Page;
@@ -19,7 +20,8 @@ public interface RoleService {
     Role createRole(RoleDto roleDto);
 
     /**
-     * Update an existing role
+     * Update the non-null fields of an existing role; fails if {@code version} is set and stale.
+     * Returns the row as stored after the update
      */
     Role updateRole(String roleId, RoleDto roleDto);
 
@@ -43,6 +45,11 @@ public interface RoleService {
      */
     List<Role> getAllActiveRoles();
 
+    /**
+     * Get all active roles as a serialized payload, keyed by the role version
+     */
+    CachedPayload getAllActiveRolesPayload();
+
     /**
      * Get roles with pagination
      */
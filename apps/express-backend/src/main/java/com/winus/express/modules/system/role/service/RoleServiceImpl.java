@@ -1,14 +1,27 @@
 package com.winus.express.modules.system.role.service;
 
+import com.winus.express.common.cache.AggregateVersions;
+import com.winus.express.common.cache.AggregateVersions.Aggregate;
+import com.winus.express.common.cache.CachedPayload;
+import com.winus.express.common.cache.PayloadCache;
+import com.winus.express.common.id.IdGenerator;
+import com.winus.express.common.jpa.PartialUpdates;
 import com.winus.express.modules.system.role.dto.RoleDto;
+import com.winus.express.modules.system.role.dto.RoleSummary;
 import com.winus.express.modules.system.role.entity.Role;
+import com.winus.express.modules.system.role.event.RoleChangedEvent;
+import com.winus.express.modules.system.role.event.RoleMenusChangedEvent;
 import com.winus.express.modules.system.menu.entity.Menu;
 import com.winus.express.modules.system.user.entity.User;
 import com.winus.express.modules.system.role.repository.RoleRepository;
 import com.winus.express.modules.system.menu.repository.MenuRepository;
 import com.winus.express.modules.system.user.repository.UserRepository;
+import com.winus.express.security.event.UserSecurityChangedEvent;
+import com.winus.express.security.event.UserSecurityChangedEvent.Reason;
+import com.winus.express.security.permission.PermissionIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -27,9 +40,16 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class RoleServiceImpl implements RoleService {
 
+    private static final String ACTIVE_ROLES_PAYLOAD = "roles:active";
+
     private final RoleRepository roleRepository;
     private final MenuRepository menuRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdGenerator idGenerator;
+    private final PartialUpdates partialUpdates;
+    private final PayloadCache payloadCache;
+    private final AggregateVersions aggregateVersions;
 
     @Override
     @Transactional
@@ -40,7 +60,7 @@ public class RoleServiceImpl implements RoleService {
         }
 
         Role role = new Role();
-        role.setRoleId(UUID.randomUUID().toString());
+        role.setRoleId(idGenerator.nextId());
         role.setRoleCode(roleDto.getRoleCode());
         role.setRoleName(roleDto.getRoleName());
         role.setDescription(roleDto.getDescription());
@@ -59,43 +79,35 @@ public class RoleServiceImpl implements RoleService {
             role.setMenus(menus);
         }
 
-        return roleRepository.save(role);
+        Role savedRole = roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(savedRole.getRoleId()));
+        return savedRole;
     }
 
     @Override
     @Transactional
     public Role updateRole(String roleId, RoleDto roleDto) {
-        Role role = roleRepository.findById(roleId)
-            .orElseThrow(() -> new RuntimeException("역할을 찾을 수 없습니다: " + roleId));
-
         // Check if role code is being changed and already exists
-        if (roleDto.getRoleCode() != null && !roleDto.getRoleCode().equals(role.getRoleCode())) {
-            if (existsByRoleCode(roleDto.getRoleCode())) {
-                throw new RuntimeException("역할 코드가 이미 존재합니다: " + roleDto.getRoleCode());
-            }
-            role.setRoleCode(roleDto.getRoleCode());
-        }
-
-        if (roleDto.getRoleName() != null) {
-            role.setRoleName(roleDto.getRoleName());
-        }
-        if (roleDto.getDescription() != null) {
-            role.setDescription(roleDto.getDescription());
-        }
-        if (roleDto.getStatus() != null) {
-            role.setStatus(roleDto.getStatus());
-        }
-        if (roleDto.getSortNo() != null) {
-            role.setSortNo(roleDto.getSortNo());
-        }
-        if (roleDto.getRemark() != null) {
-            role.setRemark(roleDto.getRemark());
+        if (roleDto.getRoleCode() != null
+            && roleRepository.existsByRoleCodeAndDelFlagAndRoleIdNot(roleDto.getRoleCode(), "0", roleId)) {
+            throw new RuntimeException("역할 코드가 이미 존재합니다: " + roleDto.getRoleCode());
         }
 
-        role.setUpdateBy("system"); // TODO: Get from security context
-        role.setUpdateTime(LocalDateTime.now());
-
-        return roleRepository.save(role);
+        Role updated = partialUpdates.of(Role.class, roleId)
+            .set("roleCode", roleDto.getRoleCode())
+            .set("roleName", roleDto.getRoleName())
+            .set("description", roleDto.getDescription())
+            .set("status", roleDto.getStatus())
+            .set("sortNo", roleDto.getSortNo())
+            .set("remark", roleDto.getRemark())
+            .set("updateBy", "system") // TODO: Get from security context
+            .expectVersion(roleDto.getVersion())
+            .executeAndReload()
+            .orElseThrow(() -> new RuntimeException("역할을 찾을 수 없습니다: " + roleId));
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(
+            userRepository.findUserIdsByRoleId(roleId), Reason.ROLE_UPDATED));
+        return updated;
     }
 
     @Override
@@ -114,6 +126,7 @@ public class RoleServiceImpl implements RoleService {
         role.setUpdateTime(LocalDateTime.now());
 
         roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleChangedEvent(roleId));
     }
 
     @Override
@@ -131,6 +144,12 @@ public class RoleServiceImpl implements RoleService {
         return roleRepository.findByStatusAndDelFlagOrderBySortNo("1", "0");
     }
 
+    @Override
+    public CachedPayload getAllActiveRolesPayload() {
+        return payloadCache.get(ACTIVE_ROLES_PAYLOAD, aggregateVersions.current(Aggregate.ROLES),
+            () -> getAllActiveRoles().stream().map(RoleSummary::of).toList());
+    }
+
     @Override
     public Page<Role> getRoles(Pageable pageable) {
         return roleRepository.findByDelFlag("0", pageable);
@@ -160,6 +179,9 @@ public class RoleServiceImpl implements RoleService {
         role.setMenus(menus);
         role.setUpdateTime(LocalDateTime.now());
         roleRepository.save(role);
+        eventPublisher.publishEvent(new RoleMenusChangedEvent(role.getRoleCode(), PermissionIndex.permissionsOf(menus)));
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(
+            userRepository.findUserIdsByRoleId(roleId), Reason.ROLE_MENUS_CHANGED));
     }
 
     @Override
@@ -190,6 +212,7 @@ public class RoleServiceImpl implements RoleService {
 
         user.setRoles(roles);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(userId, Reason.ROLES_CHANGED));
     }
 
     @Override
@@ -200,6 +223,7 @@ public class RoleServiceImpl implements RoleService {
 
         user.getRoles().removeIf(role -> role.getRoleId().equals(roleId));
         userRepository.save(user);
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(userId, Reason.ROLES_CHANGED));
     }
 
     @Override
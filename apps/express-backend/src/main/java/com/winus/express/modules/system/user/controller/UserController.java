@@ -1,11 +1,14 @@
 package com.winus.express.modules.system.user.controller;
 
+import com.winus.express.common.annotation.ApiLogging;
 import com.winus.express.common.dto.ApiResponse;
 import com.winus.express.common.dto.PageResponse;
 import com.winus.express.modules.auth.dto.PasswordUpdateRequest;
 import com.winus.express.modules.system.user.dto.UserDto;
 import com.winus.express.modules.system.user.entity.User;
 import com.winus.express.modules.system.user.service.UserService;
+import com.winus.express.security.password.PasswordHashingRejectedException;
+import com.winus.express.security.permission.PermissionIndex;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +16,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -26,7 +30,10 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final String PASSWORD_HASHING_BUSY_MESSAGE = "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.";
+
     private final UserService userService;
+    private final PermissionIndex permissionIndex;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER_VIEW')")
@@ -66,10 +73,14 @@ public class UserController {
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER_CREATE')")
+    @ApiLogging(logParameters = false)
     public ResponseEntity<ApiResponse<User>> createUser(@Valid @RequestBody UserDto userDto) {
         try {
             User createdUser = userService.createUser(userDto);
             return ResponseEntity.ok(ApiResponse.success("사용자가 성공적으로 생성되었습니다.", createdUser));
+        } catch (PasswordHashingRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ApiResponse.error(PASSWORD_HASHING_BUSY_MESSAGE, "PASSWORD_HASHING_BUSY"));
         } catch (RuntimeException e) {
             log.error("Failed to create user: {}", userDto.getUserName(), e);
             return ResponseEntity.badRequest()
@@ -79,6 +90,7 @@ public class UserController {
 
     @PutMapping("/{userId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER_UPDATE') or #userId == authentication.principal.userId")
+    @ApiLogging(logParameters = false)
     public ResponseEntity<ApiResponse<User>> updateUser(
             @PathVariable String userId,
             @Valid @RequestBody UserDto userDto) {
@@ -114,12 +126,16 @@ public class UserController {
 
     @PutMapping("/{userId}/password")
     @PreAuthorize("hasRole('ADMIN') or #userId == authentication.principal.userId")
+    @ApiLogging(logParameters = false)
     public ResponseEntity<ApiResponse<Void>> updatePassword(
             @PathVariable String userId,
             @Valid @RequestBody PasswordUpdateRequest request) {
         try {
             userService.updatePassword(userId, request.getOldPassword(), request.getNewPassword());
             return ResponseEntity.ok(ApiResponse.success("비밀번호가 성공적으로 변경되었습니다.", null));
+        } catch (PasswordHashingRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ApiResponse.error(PASSWORD_HASHING_BUSY_MESSAGE, "PASSWORD_HASHING_BUSY"));
         } catch (RuntimeException e) {
             log.error("Failed to update password for user: {}", userId, e);
             return ResponseEntity.badRequest()
@@ -129,12 +145,16 @@ public class UserController {
 
     @PutMapping("/{userId}/reset-password")
     @PreAuthorize("hasRole('ADMIN')")
+    @ApiLogging(logParameters = false)
     public ResponseEntity<ApiResponse<Void>> resetPassword(
             @PathVariable String userId,
             @RequestBody String newPassword) {
         try {
             userService.resetPassword(userId, newPassword);
             return ResponseEntity.ok(ApiResponse.success("비밀번호가 성공적으로 초기화되었습니다.", null));
+        } catch (PasswordHashingRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ApiResponse.error(PASSWORD_HASHING_BUSY_MESSAGE, "PASSWORD_HASHING_BUSY"));
         } catch (RuntimeException e) {
             log.error("Failed to reset password for user: {}", userId, e);
             return ResponseEntity.badRequest()
@@ -186,7 +206,7 @@ public class UserController {
     @GetMapping("/{userId}/permissions")
     @PreAuthorize("hasRole('ADMIN') or #userId == authentication.principal.userId")
     public ResponseEntity<List<String>> getUserPermissions(@PathVariable String userId) {
-        List<String> permissions = userService.getUserPermissions(userId);
+        List<String> permissions = permissionIndex.getPermissions(userId);
         return ResponseEntity.ok(permissions);
     }
 
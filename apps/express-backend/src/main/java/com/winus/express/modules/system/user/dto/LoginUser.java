@@ -0,0 +1,60 @@
+package com.winus.express.modules.system.user.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Everything needed to authenticate a user and issue tokens: the user with role codes, then the roles'
+ * permission codes
+ */
+public record LoginUser(String userId,
+                        String userName,
+                        String password,
+                        String email,
+                        String realName,
+                        boolean enabled,
+                        boolean accountNonLocked,
+                        List<String> roleCodes,
+                        List<String> permissions) {
+
+    /**
+     * Role codes of projection rows of a single user
+     */
+    public static Set<String> roleCodes(List<UserLoginRow> rows) {
+        Set<String> roleCodes = new LinkedHashSet<>();
+        for (UserLoginRow row : rows) {
+            if (row.roleCode() != null) {
+                roleCodes.add(row.roleCode());
+            }
+        }
+        return roleCodes;
+    }
+
+    /**
+     * Fold projection rows of a single user and the permission codes of their roles; rows must not be empty
+     */
+    public static LoginUser fromRows(List<UserLoginRow> rows, List<String> permissionCodes) {
+        UserLoginRow first = rows.get(0);
+        Set<String> roleCodes = roleCodes(rows);
+        Set<String> permissions = new LinkedHashSet<>();
+        for (String permission : permissionCodes) {
+            if (permission != null && !permission.isBlank()) {
+                permissions.add(permission);
+            }
+        }
+
+        return new LoginUser(
+            first.userId(),
+            first.userName(),
+            first.password(),
+            first.email(),
+            first.realName(),
+            "1".equals(first.status()) && "0".equals(first.lockFlag()),
+            "0".equals(first.lockFlag()),
+            new ArrayList<>(roleCodes),
+            new ArrayList<>(permissions)
+        );
+    }
+}
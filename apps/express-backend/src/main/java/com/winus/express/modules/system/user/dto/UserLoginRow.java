@@ -0,0 +1,15 @@
+package com.winus.express.modules.system.user.dto;
+
+/**
+ * One row of the login projection: the user's columns repeated for each active role
+ * (role is null when the user has none)
+ */
+public record UserLoginRow(String userId,
+                           String userName,
+                           String password,
+                           String email,
+                           String realName,
+                           String status,
+                           String lockFlag,
+                           String roleCode) {
+}
@@ -1,5 +1,6 @@
 package com.winus.express.modules.system.user.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.winus.express.common.dto.BaseEntity;
 import com.winus.express.modules.system.role.entity.Role;
 import com.winus.express.modules.system.department.entity.Department;
@@ -11,6 +12,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -25,8 +28,23 @@ import java.util.Set;
 @ToString(exclude = {"password", "roles", "department"})
 @Entity
 @Table(name = "TB_USER")
+@NamedEntityGraph(name = User.WITH_DEPARTMENT, attributeNodes = @NamedAttributeNode("department"))
+@NamedEntityGraph(name = User.WITH_ROLES_AND_DEPARTMENT, attributeNodes = {
+    @NamedAttributeNode("roles"),
+    @NamedAttributeNode("department")
+})
 public class User extends BaseEntity {
 
+    /**
+     * Paged lists: the department is joined, roles are batch fetched
+     */
+    public static final String WITH_DEPARTMENT = "User.withDepartment";
+
+    /**
+     * Detail and unpaged lists
+     */
+    public static final String WITH_ROLES_AND_DEPARTMENT = "User.withRolesAndDepartment";
+
     @Id
     @Column(name = "USER_ID", length = 50)
     private String userId;
@@ -88,10 +106,15 @@ public class User extends BaseEntity {
         joinColumns = @JoinColumn(name = "USER_ID"),
         inverseJoinColumns = @JoinColumn(name = "ROLE_ID")
     )
+    @JsonIgnoreProperties({"users", "menus"})
     private Set<Role> roles = new HashSet<>();
 
+    // Joined on a non-key column, so it is always loaded eagerly and by unique key, which batch
+    // fetching does not cover. JOIN makes entity and collection loads (e.g. Role.users) join it instead.
     @ManyToOne(fetch = FetchType.LAZY)
+    @Fetch(FetchMode.JOIN)
     @JoinColumn(name = "DEPT_CODE", referencedColumnName = "DEPT_CODE", insertable = false, updatable = false)
+    @JsonIgnoreProperties({"children", "parent", "users", "hibernateLazyInitializer", "handler"})
     private Department department;
 
     // Constructor with essential fields
@@ -101,6 +124,11 @@ public class User extends BaseEntity {
         this.password = password;
     }
 
+    @Override
+    public String getId() {
+        return userId;
+    }
+
     // Utility methods
     public boolean isEnabled() {
         return "1".equals(status) && "0".equals(delFlag) && "0".equals(lockFlag);
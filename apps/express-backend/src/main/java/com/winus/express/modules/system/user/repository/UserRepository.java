@@ -1,11 +1,16 @@
 package com.winus.express.modules.system.user.repository;
 
+import com.winus.express.modules.system.user.dto.UserLoginRow;
 import com.winus.express.modules.system.user.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -24,6 +29,38 @@ public interface UserRepository extends JpaRepository<User, String> {
      */
     Optional<User> findByUserNameAndDelFlag(String userName, String delFlag);
 
+    /**
+     * Find user by ID with roles and department
+     */
+    @EntityGraph(User.WITH_ROLES_AND_DEPARTMENT)
+    Optional<User> findWithRolesAndDepartmentByUserId(String userId);
+
+    /**
+     * Find active user by ID with roles fetched in the same query.
+     * Roles are read from the database rather than the second-level cache, since the result is shared
+     * with other nodes through the principal cache.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.userId = :userId AND u.delFlag = '0'")
+    Optional<User> findByUserIdWithRoles(@Param("userId") String userId);
+
+    /**
+     * Login projection: the user with one row per active role code. Permission codes are loaded
+     * separately (RoleRepository.findPermissionCodesByRoleCodes) so menus do not multiply these rows.
+     */
+    @Query("SELECT new com.winus.express.modules.system.user.dto.UserLoginRow(" +
+           "u.userId, u.userName, u.password, u.email, u.realName, u.status, u.lockFlag, r.roleCode) " +
+           "FROM User u " +
+           "LEFT JOIN u.roles r ON r.status = '1' AND r.delFlag = '0' " +
+           "WHERE u.userName = :userName AND u.delFlag = '0'")
+    List<UserLoginRow> findLoginRowsByUserName(@Param("userName") String userName);
+
+    /**
+     * Find IDs of users assigned to a role
+     */
+    @Query("SELECT u.userId FROM User u JOIN u.roles r WHERE r.roleId = :roleId")
+    List<String> findUserIdsByRoleId(@Param("roleId") String roleId);
+
     /**
      * Find user by email
      */
@@ -32,16 +69,19 @@ public interface UserRepository extends JpaRepository<User, String> {
     /**
      * Find users by department
      */
+    @EntityGraph(User.WITH_ROLES_AND_DEPARTMENT)
     List<User> findByDeptCodeAndDelFlagOrderBySortNo(String deptCode, String delFlag);
 
     /**
      * Find users by status
      */
+    @EntityGraph(User.WITH_DEPARTMENT)
     Page<User> findByStatusAndDelFlag(String status, String delFlag, Pageable pageable);
 
     /**
      * Find users by department and status
      */
+    @EntityGraph(User.WITH_DEPARTMENT)
     Page<User> findByDeptCodeAndStatusAndDelFlag(String deptCode, String status, String delFlag, Pageable pageable);
 
     /**
@@ -57,6 +97,7 @@ public interface UserRepository extends JpaRepository<User, String> {
     /**
      * Search users by keyword
      */
+    @EntityGraph(User.WITH_DEPARTMENT)
     @Query("SELECT u FROM User u WHERE u.delFlag = :delFlag AND " +
            "(u.userName LIKE %:keyword% OR u.realName LIKE %:keyword% OR u.email LIKE %:keyword%)")
     Page<User> searchUsers(@Param("keyword") String keyword, @Param("delFlag") String delFlag, Pageable pageable);
@@ -79,6 +120,15 @@ public interface UserRepository extends JpaRepository<User, String> {
                        @Param("password") String password,
                        @Param("resetTime") LocalDateTime resetTime);
 
+    /**
+     * Replace the password hash only if it is still the expected one (hash upgrade, password unchanged)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.userId = :userId AND u.password = :currentHash")
+    int upgradePasswordHash(@Param("userId") String userId,
+                            @Param("currentHash") String currentHash,
+                            @Param("newHash") String newHash);
+
     /**
      * Lock/Unlock user account
      */
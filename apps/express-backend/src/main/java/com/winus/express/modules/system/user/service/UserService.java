@@ -1,5 +1,6 @@
 package com.winus.express.modules.system.user.service;
 
+import com.winus.express.modules.system.user.dto.LoginUser;
 import com.winus.express.modules.system.user.dto.UserDto;
 import com.winus.express.modules.system.user.entity.User;
 import org.springframework.data.domain.Page;
@@ -38,6 +39,16 @@ public interface UserService {
      */
     Optional<User> getUserByUsername(String username);
 
+    /**
+     * Get active user by ID with roles loaded
+     */
+    Optional<User> getUserWithRoles(String userId);
+
+    /**
+     * Get active user by username with active role codes and permission codes, in one query
+     */
+    Optional<LoginUser> getLoginUser(String username);
+
     /**
      * Get user by email
      */
@@ -73,6 +84,12 @@ public interface UserService {
      */
     void updatePassword(String userId, String oldPassword, String newPassword);
 
+    /**
+     * Replace a stored password hash with a re-encoded hash of the same password.
+     * Returns false if the stored hash changed in the meantime.
+     */
+    boolean upgradePasswordHash(String userId, String currentHash, String newHash);
+
     /**
      * Reset user password
      */
@@ -93,18 +110,13 @@ public interface UserService {
      */
     void updateUserRoles(String userId, List<String> roleIds);
 
-    /**
-     * Get user permissions
-     */
-    List<String> getUserPermissions(String userId);
-
     /**
      * Validate user credentials
      */
     boolean validateCredentials(String username, String password);
 
     /**
-     * Update login info
+     * Update login info, asynchronously off the login response path
      */
     void updateLoginInfo(String userId, String loginIp);
 }
\ No newline at end of file
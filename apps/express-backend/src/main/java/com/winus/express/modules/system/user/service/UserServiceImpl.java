@@ -1,19 +1,25 @@
 package com.winus.express.modules.system.user.service;
 
+import com.winus.express.modules.system.user.dto.LoginUser;
 import com.winus.express.modules.system.user.dto.UserDto;
+import com.winus.express.modules.system.user.dto.UserLoginRow;
 import com.winus.express.modules.system.role.entity.Role;
 import com.winus.express.modules.system.user.entity.User;
-import com.winus.express.modules.system.menu.repository.MenuRepository;
 import com.winus.express.modules.system.role.repository.RoleRepository;
 import com.winus.express.modules.system.user.repository.UserRepository;
-import com.winus.express.modules.system.user.service.UserService;
+import com.winus.express.security.event.UserSecurityChangedEvent;
+import com.winus.express.security.event.UserSecurityChangedEvent.Reason;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -32,43 +38,53 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final MenuRepository menuRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    /*
+     * Methods that hash passwords run without a transaction and hash before opening one, so the wait for a
+     * hashing worker and the BCrypt time never hold a pooled connection.
+     */
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createUser(UserDto userDto) {
-        // Check if username already exists
-        if (existsByUsername(userDto.getUserName())) {
-            throw new RuntimeException("Username already exists: " + userDto.getUserName());
-        }
+        String encodedPassword = passwordEncoder.encode(userDto.getPassword());
 
-        // Check if email already exists
-        if (userDto.getEmail() != null && existsByEmail(userDto.getEmail())) {
-            throw new RuntimeException("Email already exists: " + userDto.getEmail());
-        }
+        return transactionTemplate.execute(status -> {
+            // Check if username already exists
+            if (existsByUsername(userDto.getUserName())) {
+                throw new RuntimeException("Username already exists: " + userDto.getUserName());
+            }
 
-        User user = new User();
-        user.setUserId(userDto.getUserId());
-        user.setUserName(userDto.getUserName());
-        user.setPassword(passwordEncoder.encode(userDto.getPassword()));
-        user.setRealName(userDto.getRealName());
-        user.setEmail(userDto.getEmail());
-        user.setPhone(userDto.getPhone());
-        user.setDeptCode(userDto.getDeptCode());
-        user.setStatus(userDto.getStatus() != null ? userDto.getStatus() : "1");
-        user.setCreateBy("system"); // TODO: Get from security context
-
-        // Set roles if provided
-        if (userDto.getRoleIds() != null && !userDto.getRoleIds().isEmpty()) {
-            Set<Role> roles = new HashSet<>();
-            for (String roleId : userDto.getRoleIds()) {
-                roleRepository.findById(roleId).ifPresent(roles::add);
+            // Check if email already exists
+            if (userDto.getEmail() != null && existsByEmail(userDto.getEmail())) {
+                throw new RuntimeException("Email already exists: " + userDto.getEmail());
             }
-            user.setRoles(roles);
-        }
 
-        return userRepository.save(user);
+            User user = new User();
+            user.setUserId(userDto.getUserId());
+            user.setUserName(userDto.getUserName());
+            user.setPassword(encodedPassword);
+            user.setRealName(userDto.getRealName());
+            user.setEmail(userDto.getEmail());
+            user.setPhone(userDto.getPhone());
+            user.setDeptCode(userDto.getDeptCode());
+            user.setStatus(userDto.getStatus() != null ? userDto.getStatus() : "1");
+            user.setCreateBy("system"); // TODO: Get from security context
+
+            // Set roles if provided
+            if (userDto.getRoleIds() != null && !userDto.getRoleIds().isEmpty()) {
+                Set<Role> roles = new HashSet<>();
+                for (String roleId : userDto.getRoleIds()) {
+                    roleRepository.findById(roleId).ifPresent(roles::add);
+                }
+                user.setRoles(roles);
+            }
+
+            return userRepository.save(user);
+        });
     }
 
     @Override
@@ -92,7 +108,9 @@ public class UserServiceImpl implements UserService {
         user.setUpdateBy("system"); // TODO: Get from security context
         user.setUpdateTime(LocalDateTime.now());
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(userId, Reason.PROFILE_UPDATED));
+        return savedUser;
     }
 
     @Override
@@ -106,11 +124,12 @@ public class UserServiceImpl implements UserService {
         user.setUpdateTime(LocalDateTime.now());
 
         userRepository.save(user);
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(userId, Reason.DELETED));
     }
 
     @Override
     public Optional<User> getUserById(String userId) {
-        return userRepository.findById(userId);
+        return userRepository.findWithRolesAndDepartmentByUserId(userId);
     }
 
     @Override
@@ -118,6 +137,24 @@ public class UserServiceImpl implements UserService {
         return userRepository.findByUserNameAndDelFlag(username, "0");
     }
 
+    @Override
+    public Optional<User> getUserWithRoles(String userId) {
+        return userRepository.findByUserIdWithRoles(userId);
+    }
+
+    @Override
+    public Optional<LoginUser> getLoginUser(String username) {
+        List<UserLoginRow> rows = userRepository.findLoginRowsByUserName(username);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<String> roleCodes = LoginUser.roleCodes(rows);
+        List<String> permissions = roleCodes.isEmpty()
+            ? List.of()
+            : roleRepository.findPermissionCodesByRoleCodes(roleCodes);
+        return Optional.of(LoginUser.fromRows(rows, permissions));
+    }
+
     @Override
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmailAndDelFlag(email, "0");
@@ -149,36 +186,52 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updatePassword(String userId, String oldPassword, String newPassword) {
-        User user = userRepository.findById(userId)
+        String currentHash = userRepository.findById(userId)
+            .map(User::getPassword)
             .orElseThrow(() -> new RuntimeException("User not found: " + userId));
 
-        if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+        if (!passwordEncoder.matches(oldPassword, currentHash)) {
             throw new RuntimeException("Old password is incorrect");
         }
 
         String encodedPassword = passwordEncoder.encode(newPassword);
-        userRepository.updatePassword(userId, encodedPassword, LocalDateTime.now());
+        storePassword(userId, encodedPassword);
     }
 
     @Override
     @Transactional
+    public boolean upgradePasswordHash(String userId, String currentHash, String newHash) {
+        return userRepository.upgradePasswordHash(userId, currentHash, newHash) > 0;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void resetPassword(String userId, String newPassword) {
         String encodedPassword = passwordEncoder.encode(newPassword);
-        userRepository.updatePassword(userId, encodedPassword, LocalDateTime.now());
+        storePassword(userId, encodedPassword);
+    }
+
+    private void storePassword(String userId, String encodedPassword) {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.updatePassword(userId, encodedPassword, LocalDateTime.now());
+            eventPublisher.publishEvent(UserSecurityChangedEvent.of(userId, Reason.PASSWORD_CHANGED));
+        });
     }
 
     @Override
     @Transactional
     public void lockUser(String userId) {
         userRepository.updateLockStatus(userId, "1");
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(userId, Reason.LOCKED));
     }
 
     @Override
     @Transactional
     public void unlockUser(String userId) {
         userRepository.updateLockStatus(userId, "0");
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(userId, Reason.UNLOCKED));
     }
 
     @Override
@@ -194,14 +247,11 @@ public class UserServiceImpl implements UserService {
 
         user.setRoles(roles);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserSecurityChangedEvent.of(userId, Reason.ROLES_CHANGED));
     }
 
     @Override
-    public List<String> getUserPermissions(String userId) {
-        return menuRepository.findPermissionsByUserId(userId);
-    }
-
-    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean validateCredentials(String username, String password) {
         Optional<User> userOpt = getUserByUsername(username);
         if (userOpt.isEmpty()) {
@@ -212,6 +262,7 @@ public class UserServiceImpl implements UserService {
         return user.isEnabled() && passwordEncoder.matches(password, user.getPassword());
     }
 
+    @Async
     @Override
     @Transactional
     public void updateLoginInfo(String userId, String loginIp) {
@@ -0,0 +1,302 @@
+package com.winus.express.security.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.winus.express.security.event.UserSecurityChangedEvent;
+import com.winus.express.security.principal.CustomUserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Two-tier cache of authenticated principals keyed by userId.
+ * L1 is a short-lived, size-bounded in-process cache that evicts one entry at a time, L2 is Redis. Entries are evicted after commit
+ * whenever {@link UserSecurityChangedEvent} is published, and the eviction is broadcast
+ * so other nodes drop their L1 copy as well.
+ * Every eviction bumps a per-user version in Redis together with deleting the entry, and a principal loaded
+ * from the database is only written to Redis if that version is still the one read before loading, so a load
+ * that raced an eviction on another node cannot put the old principal back. Evictions that could not reach
+ * Redis are retried until they do; until then this node bypasses Redis for those users.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    static final String KEY_PREFIX = "auth:principal:";
+    static final String VERSION_KEY_PREFIX = "auth:principal:version:";
+    static final String EVICT_CHANNEL = "auth:principal:evict";
+
+    /** KEYS: entry, version; ARGV: expected version ("" if absent), json, ttl millis */
+    private static final RedisScript<Long> WRITE_IF_CURRENT = RedisScript.of("""
+        local version = redis.call('GET', KEYS[2]) or ''
+        if version ~= ARGV[1] then
+            return 0
+        end
+        redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+        return 1
+        """, Long.class);
+
+    /** KEYS: entry, version; ARGV: version ttl millis */
+    private static final RedisScript<Long> EVICT = RedisScript.of("""
+        local version = redis.call('INCR', KEYS[2])
+        redis.call('PEXPIRE', KEYS[2], ARGV[1])
+        redis.call('DEL', KEYS[1])
+        return version
+        """, Long.class);
+
+    private static final long REDIS_RETRY_MILLIS = 30_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.principal-cache.local-ttl:60s}")
+    private Duration localTtl;
+
+    @Value("${app.security.principal-cache.local-max-size:10000}")
+    private int localMaxSize;
+
+    @Value("${app.security.principal-cache.redis-ttl:30m}")
+    private Duration redisTtl;
+
+    private Cache<String, CustomUserPrincipal> local;
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<String> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private volatile long redisRetryAt;
+
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        local = Caffeine.newBuilder()
+            .maximumSize(localMaxSize)
+            .expireAfterWrite(localTtl)
+            .build();
+        localHits = lookupCounter("local");
+        redisHits = lookupCounter("redis");
+        misses = lookupCounter("miss");
+        listenerContainer.addMessageListener(this::onEvictMessage, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    /**
+     * Return the cached principal or load it through {@code loader} and populate both tiers.
+     */
+    public CustomUserPrincipal get(String userId, Function<String, CustomUserPrincipal> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+
+        CustomUserPrincipal cached = local.getIfPresent(userId);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+
+        long startGeneration = generation.get();
+
+        RedisEntry entry = readRedis(userId);
+        if (entry != null && entry.principal() != null) {
+            redisHits.increment();
+            putLocal(userId, entry.principal(), startGeneration);
+            return entry.principal();
+        }
+
+        misses.increment();
+        CustomUserPrincipal principal = loader.apply(userId);
+        if (principal != null && generation.get() == startGeneration) {
+            if (entry != null) {
+                writeRedis(userId, principal, entry.version());
+            }
+            putLocal(userId, principal, startGeneration);
+        }
+        return principal;
+    }
+
+    public void evict(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        local.invalidateAll(userIds);
+        pendingEvictions.addAll(userIds);
+
+        if (redisAvailable()) {
+            evictPending(userIds);
+        }
+    }
+
+    /**
+     * Retry evictions that could not be written to Redis. Runs regardless of the read/write back-off,
+     * since other nodes keep serving the evicted principals until these succeed.
+     */
+    @Scheduled(fixedDelayString = "${app.security.principal-cache.retry-interval:PT5S}",
+               initialDelayString = "${app.security.principal-cache.retry-interval:PT5S}")
+    public void retryEvictions() {
+        if (!pendingEvictions.isEmpty()) {
+            evictPending(List.copyOf(pendingEvictions));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        evict(event.userIds());
+    }
+
+    private void onEvictMessage(Message message, byte[] pattern) {
+        String userId = new String(message.getBody(), StandardCharsets.UTF_8);
+        generation.incrementAndGet();
+        local.invalidate(userId);
+    }
+
+    private void putLocal(String userId, CustomUserPrincipal principal, long startGeneration) {
+        if (generation.get() != startGeneration) {
+            return;
+        }
+        local.put(userId, principal);
+    }
+
+    private void evictPending(Collection<String> userIds) {
+        try {
+            for (String userId : userIds) {
+                redisTemplate.execute(EVICT, List.of(KEY_PREFIX + userId, VERSION_KEY_PREFIX + userId),
+                    Long.toString(redisTtl.toMillis()));
+                redisTemplate.convertAndSend(EVICT_CHANNEL, userId);
+                pendingEvictions.remove(userId);
+            }
+        } catch (DataAccessException e) {
+            markRedisUnavailable(e);
+            log.warn("{} principal evictions are pending until Redis accepts them", pendingEvictions.size());
+        }
+    }
+
+    /**
+     * Read the cached principal together with the user's eviction version.
+     * Returns null if Redis must not be used for this user right now.
+     */
+    private RedisEntry readRedis(String userId) {
+        if (!redisAvailable() || pendingEvictions.contains(userId)) {
+            return null;
+        }
+        try {
+            List<String> values = redisTemplate.opsForValue()
+                .multiGet(List.of(KEY_PREFIX + userId, VERSION_KEY_PREFIX + userId));
+            if (values == null) {
+                return null;
+            }
+            String version = values.get(1) != null ? values.get(1) : "";
+            String json = values.get(0);
+            if (json == null) {
+                return new RedisEntry(null, version);
+            }
+            try {
+                return new RedisEntry(objectMapper.readValue(json, PrincipalSnapshot.class).toPrincipal(), version);
+            } catch (JsonProcessingException e) {
+                log.warn("Discarding unreadable cached principal for user {}", userId);
+                return new RedisEntry(null, version);
+            }
+        } catch (DataAccessException e) {
+            markRedisUnavailable(e);
+        }
+        return null;
+    }
+
+    private void writeRedis(String userId, CustomUserPrincipal principal, String expectedVersion) {
+        if (!redisAvailable() || pendingEvictions.contains(userId)) {
+            return;
+        }
+        try {
+            String json = objectMapper.writeValueAsString(PrincipalSnapshot.from(principal));
+            redisTemplate.execute(WRITE_IF_CURRENT, List.of(KEY_PREFIX + userId, VERSION_KEY_PREFIX + userId),
+                expectedVersion, json, Long.toString(redisTtl.toMillis()));
+        } catch (DataAccessException e) {
+            markRedisUnavailable(e);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not cache principal for user {}", userId, e);
+        }
+    }
+
+    private boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisRetryAt;
+    }
+
+    private void markRedisUnavailable(DataAccessException e) {
+        redisRetryAt = System.currentTimeMillis() + REDIS_RETRY_MILLIS;
+        log.warn("Redis principal cache unavailable, using local tier only for {}ms: {}",
+            REDIS_RETRY_MILLIS, e.getMessage());
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("principal.cache.lookup")
+            .description("Principal cache lookups by serving tier")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private record RedisEntry(CustomUserPrincipal principal, String version) {
+    }
+
+    /**
+     * Serialized form kept in Redis. The password hash is never cached.
+     */
+    record PrincipalSnapshot(String userId, String username, String email, String realName,
+                             List<String> authorities, boolean enabled, boolean accountNonLocked) {
+
+        static PrincipalSnapshot from(CustomUserPrincipal principal) {
+            return new PrincipalSnapshot(
+                principal.getUserId(),
+                principal.getUsername(),
+                principal.getEmail(),
+                principal.getRealName(),
+                principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList(),
+                principal.isEnabled(),
+                principal.isAccountNonLocked()
+            );
+        }
+
+        CustomUserPrincipal toPrincipal() {
+            return CustomUserPrincipal.builder()
+                .userId(userId)
+                .username(username)
+                .email(email)
+                .realName(realName)
+                .authorities(authorities.stream().map(SimpleGrantedAuthority::new).toList())
+                .enabled(enabled)
+                .accountNonExpired(true)
+                .accountNonLocked(accountNonLocked)
+                .credentialsNonExpired(true)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.winus.express.security.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published when rows backing a user's security principal change.
+ * Listeners react after the surrounding transaction commits.
+ */
+public record UserSecurityChangedEvent(Set<String> userIds, Reason reason) {
+
+    public UserSecurityChangedEvent {
+        userIds = Set.copyOf(userIds);
+    }
+
+    public static UserSecurityChangedEvent of(String userId, Reason reason) {
+        return new UserSecurityChangedEvent(Set.of(userId), reason);
+    }
+
+    public static UserSecurityChangedEvent of(Collection<String> userIds, Reason reason) {
+        return new UserSecurityChangedEvent(Set.copyOf(userIds), reason);
+    }
+
+    public enum Reason {
+        PROFILE_UPDATED,
+        ROLES_CHANGED,
+        ROLE_UPDATED,
+        ROLE_MENUS_CHANGED,
+        LOCKED,
+        UNLOCKED,
+        DELETED,
+        PASSWORD_CHANGED
+    }
+}
@@ -1,7 +1,12 @@
 package com.winus.express.security.filter;
 
+import com.winus.express.common.metrics.HttpServerMetricsConvention;
 import com.winus.express.common.util.JwtUtil;
+import com.winus.express.security.principal.CustomUserPrincipal;
 import com.winus.express.security.provider.CustomUserDetailsService;
+import com.winus.express.security.token.JwtClaims;
+import com.winus.express.security.token.PermissionVersionService;
+import com.winus.express.security.token.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +14,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,6 +23,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter for processing JWT tokens
@@ -28,23 +35,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final PermissionVersionService permissionVersionService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                    FilterChain filterChain) throws ServletException, IOException {
         try {
-            String jwt = getJwtFromRequest(request);
+            String jwt = JwtUtil.resolveBearerToken(request);
+            Optional<JwtClaims> claims = StringUtils.hasText(jwt) ? jwtUtil.verifyToken(jwt) : Optional.empty();
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String userId = jwtUtil.getUserIdFromToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userId);
-                if (userDetails != null) {
+            if (claims.isPresent() && !tokenRevocationService.isRevoked(claims.get())) {
+                UserDetails userDetails = resolvePrincipal(claims.get());
+                if (userDetails.isEnabled() && userDetails.isAccountNonLocked()) {
                     UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute(HttpServerMetricsConvention.AUTHORITIES_ATTRIBUTE, authentication.getAuthorities());
                 }
             }
         } catch (Exception ex) {
@@ -54,11 +63,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String getJwtFromRequest(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+    /**
+     * Build the principal straight from a self-contained token whose permission stamp is still current,
+     * otherwise load it through the principal cache.
+     */
+    private UserDetails resolvePrincipal(JwtClaims claims) {
+        if (claims.hasEmbeddedAuthorities()
+            && permissionVersionService.isCurrent(claims.userId(), claims.permissionStamp())) {
+            return CustomUserPrincipal.builder()
+                .userId(claims.userId())
+                .username(claims.username())
+                .email(claims.email())
+                .realName(claims.realName())
+                .authorities(claims.roles().stream()
+                    .map(role -> new SimpleGrantedAuthority(JwtUtil.ROLE_PREFIX + role))
+                    .toList())
+                .permissions(claims.permissions())
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build();
         }
-        return null;
+        return userDetailsService.loadUserByUserId(claims.userId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,226 @@
+package com.winus.express.security.login;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Failed-login limiter checked before the password is hashed.
+ * Each login reserves an attempt up front: the counters are incremented first and the new totals
+ * compared with the limits, so concurrent logins cannot all pass a check before any failure lands.
+ * Refused and successful attempts give their reservation back. Failures are counted in a sliding window of {@code vben.system.account-lock-duration}, per
+ * username (limit {@code vben.system.max-login-attempts}) and per client IP (limit
+ * {@code app.security.login-limiter.ip-max-attempts}). Counters are local by default; with
+ * {@code app.security.login-limiter.store: redis} they are shared across nodes, falling back to
+ * the local counters while Redis is unreachable.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginAttemptLimiter {
+
+    static final String KEY_PREFIX = "auth:login-fail:";
+
+    private static final String USER_KEY = "u:";
+    private static final String IP_KEY = "ip:";
+    private static final long REDIS_RETRY_MILLIS = 30_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${vben.system.max-login-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${vben.system.account-lock-duration:300000}")
+    private long windowMillis;
+
+    @Value("${app.security.login-limiter.ip-max-attempts:50}")
+    private int ipMaxAttempts;
+
+    @Value("${app.security.login-limiter.slots:10}")
+    private int slotCount;
+
+    @Value("${app.security.login-limiter.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    @Value("${app.security.login-limiter.store:local}")
+    private String store;
+
+    private final Map<String, SlidingWindowCounter> counters = new ConcurrentHashMap<>();
+    private long slotMillis;
+    private volatile long redisRetryAt;
+
+    private Counter userLimitedCounter;
+    private Counter ipLimitedCounter;
+
+    @PostConstruct
+    void init() {
+        slotMillis = Math.max(1, windowMillis / slotCount);
+        userLimitedCounter = limitedCounter("username");
+        ipLimitedCounter = limitedCounter("ip");
+    }
+
+    /**
+     * A login attempt counted against both limits before the password is checked
+     */
+    public record Attempt(String username, String clientIp, long at, boolean blocked) {
+    }
+
+    /**
+     * Count a login attempt as a failure in advance. If that takes the username or the IP over its
+     * limit the attempt is blocked, given back, and must be refused without checking the password.
+     * An attempt that is not blocked stays counted unless {@link #recordSuccess} or {@link #release} is called.
+     */
+    public Attempt reserve(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        String userKey = USER_KEY + username;
+        if (increment(userKey, now) > maxAttempts) {
+            decrement(userKey, now);
+            userLimitedCounter.increment();
+            return new Attempt(username, clientIp, now, true);
+        }
+        if (clientIp != null && increment(IP_KEY + clientIp, now) > ipMaxAttempts) {
+            decrement(IP_KEY + clientIp, now);
+            decrement(userKey, now);
+            ipLimitedCounter.increment();
+            return new Attempt(username, clientIp, now, true);
+        }
+        return new Attempt(username, clientIp, now, false);
+    }
+
+    /**
+     * Give back an attempt that did not fail on the password (e.g. hashing was saturated)
+     */
+    public void release(Attempt attempt) {
+        if (attempt.blocked()) {
+            return;
+        }
+        decrement(USER_KEY + attempt.username(), attempt.at());
+        if (attempt.clientIp() != null) {
+            decrement(IP_KEY + attempt.clientIp(), attempt.at());
+        }
+    }
+
+    /**
+     * Clear the username's failures and give back the attempt's IP reservation.
+     * Earlier IP failures are kept so a valid account cannot reset an attacker's budget.
+     */
+    public void recordSuccess(Attempt attempt) {
+        if (attempt.clientIp() != null) {
+            decrement(IP_KEY + attempt.clientIp(), attempt.at());
+        }
+        String key = USER_KEY + attempt.username();
+        counters.remove(key);
+        if (useRedis()) {
+            try {
+                redisTemplate.delete(redisKeys(key, System.currentTimeMillis()));
+            } catch (DataAccessException e) {
+                markRedisUnavailable(e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${vben.system.account-lock-duration:300000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        counters.values().removeIf(counter -> counter.isIdle(now));
+    }
+
+    /**
+     * Record one failure and return the count within the window, including it
+     */
+    private int increment(String key, long now) {
+        if (useRedis()) {
+            try {
+                String slotKey = slotKey(key, now);
+                redisTemplate.opsForValue().increment(slotKey);
+                redisTemplate.expire(slotKey, Duration.ofMillis(windowMillis + slotMillis));
+                List<String> values = redisTemplate.opsForValue().multiGet(redisKeys(key, now));
+                int total = 0;
+                if (values != null) {
+                    for (String value : values) {
+                        total += value != null ? Integer.parseInt(value) : 0;
+                    }
+                }
+                return total;
+            } catch (DataAccessException e) {
+                markRedisUnavailable(e);
+            }
+        }
+        SlidingWindowCounter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() >= maxTrackedKeys) {
+                evictIdle();
+                if (counters.size() >= maxTrackedKeys) {
+                    log.warn("Login limiter is tracking {} keys, not tracking {}", counters.size(), key);
+                    return 0;
+                }
+            }
+            counter = counters.computeIfAbsent(key, k -> new SlidingWindowCounter(slotCount, slotMillis));
+        }
+        return counter.increment(now);
+    }
+
+    private void decrement(String key, long at) {
+        if (useRedis()) {
+            try {
+                String slotKey = slotKey(key, at);
+                Long remaining = redisTemplate.opsForValue().decrement(slotKey);
+                if (remaining != null && remaining < 0) {
+                    // The slot was already cleared by a success; do not leave a key without TTL behind
+                    redisTemplate.delete(slotKey);
+                }
+                return;
+            } catch (DataAccessException e) {
+                markRedisUnavailable(e);
+            }
+        }
+        SlidingWindowCounter counter = counters.get(key);
+        if (counter != null) {
+            counter.decrement(at);
+        }
+    }
+
+    private String slotKey(String key, long now) {
+        return KEY_PREFIX + key + ":" + now / slotMillis;
+    }
+
+    private List<String> redisKeys(String key, long now) {
+        long currentSlot = now / slotMillis;
+        List<String> keys = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            keys.add(KEY_PREFIX + key + ":" + (currentSlot - i));
+        }
+        return keys;
+    }
+
+    private boolean useRedis() {
+        return "redis".equalsIgnoreCase(store) && System.currentTimeMillis() >= redisRetryAt;
+    }
+
+    private void markRedisUnavailable(DataAccessException e) {
+        redisRetryAt = System.currentTimeMillis() + REDIS_RETRY_MILLIS;
+        log.warn("Redis login limiter unavailable, using local counters for {}ms: {}",
+            REDIS_RETRY_MILLIS, e.getMessage());
+    }
+
+    private Counter limitedCounter(String key) {
+        return Counter.builder("auth.login.limited")
+            .description("Login attempts refused by the failed-login limiter")
+            .tag("key", key)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,80 @@
+package com.winus.express.security.login;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window event counter.
+ * The window is split into fixed slots; each slot packs its slot number and count into one long
+ * so a slot can be reset and incremented with a single CAS. Slots older than the window are ignored.
+ */
+final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final long slotMillis;
+    private volatile long lastUpdated;
+
+    SlidingWindowCounter(int slotCount, long slotMillis) {
+        this.slots = new AtomicLongArray(slotCount);
+        this.slotMillis = slotMillis;
+    }
+
+    /**
+     * Record one event and return the count within the window, including it
+     */
+    int increment(long now) {
+        long slot = now / slotMillis;
+        int index = (int) (slot % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            long next;
+            if (current >>> COUNT_BITS == slot) {
+                next = (current & COUNT_MASK) == COUNT_MASK ? current : current + 1;
+            } else {
+                next = (slot << COUNT_BITS) | 1;
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                break;
+            }
+        }
+        lastUpdated = now;
+        return count(now);
+    }
+
+    /**
+     * Take back one event recorded at {@code at}; nothing happens once its slot has been reused
+     */
+    void decrement(long at) {
+        long slot = at / slotMillis;
+        int index = (int) (slot % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            if (current >>> COUNT_BITS != slot || (current & COUNT_MASK) == 0) {
+                return;
+            }
+            if (slots.compareAndSet(index, current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    int count(long now) {
+        long currentSlot = now / slotMillis;
+        long oldestSlot = currentSlot - slots.length() + 1;
+        int total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long value = slots.get(i);
+            long slot = value >>> COUNT_BITS;
+            if (slot >= oldestSlot && slot <= currentSlot) {
+                total += (int) (value & COUNT_MASK);
+            }
+        }
+        return total;
+    }
+
+    boolean isIdle(long now) {
+        return now - lastUpdated >= slotMillis * slots.length();
+    }
+}
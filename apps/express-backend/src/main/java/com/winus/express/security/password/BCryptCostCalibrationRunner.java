@@ -0,0 +1,39 @@
+package com.winus.express.security.password;
+
+import com.winus.express.common.config.PasswordProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Logs a recommended BCrypt cost for this host at startup when
+ * {@code app.security.password.calibration.target-latency} is set.
+ * Runs on its own thread so it neither delays startup nor occupies a hashing worker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BCryptCostCalibrationRunner {
+
+    private final PasswordProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        PasswordProperties.Calibration calibration = properties.getCalibration();
+        Duration target = calibration.getTargetLatency();
+        if (target == null) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            BCryptCostCalibrator.Result result = BCryptCostCalibrator.calibrate(target, calibration.getSamples());
+            log.info("{} (configured {})", result, properties.getEncoderStrength());
+        }, "bcrypt-calibration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,80 @@
+package com.winus.express.security.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures BCrypt latency on the current hardware and picks the highest cost whose median
+ * hash time stays within a target.
+ * Can be run standalone: {@code java -cp <app classpath> com.winus.express.security.password.BCryptCostCalibrator 250ms}
+ */
+public final class BCryptCostCalibrator {
+
+    static final int MIN_COST = 4;
+    static final int MAX_COST = 16;
+
+    private static final String SAMPLE_PASSWORD = "calibration-P@ssw0rd";
+
+    private BCryptCostCalibrator() {
+    }
+
+    /**
+     * Hash with increasing cost until the median exceeds {@code targetLatency}.
+     * Each cost step doubles the work, so the run stops one step past the target.
+     */
+    public static Result calibrate(Duration targetLatency, int samples) {
+        Map<Integer, Duration> medians = new LinkedHashMap<>();
+        int recommended = MIN_COST;
+        for (int cost = MIN_COST; cost <= MAX_COST; cost++) {
+            Duration median = medianHashTime(new BCryptPasswordEncoder(cost), samples);
+            medians.put(cost, median);
+            if (median.compareTo(targetLatency) > 0) {
+                break;
+            }
+            recommended = cost;
+        }
+        return new Result(targetLatency, recommended, Collections.unmodifiableMap(medians));
+    }
+
+    private static Duration medianHashTime(BCryptPasswordEncoder encoder, int samples) {
+        encoder.encode(SAMPLE_PASSWORD); // warm-up
+        long[] nanos = new long[Math.max(1, samples)];
+        for (int i = 0; i < nanos.length; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[nanos.length / 2]);
+    }
+
+    public record Result(Duration targetLatency, int recommendedCost, Map<Integer, Duration> medianByCost) {
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("BCrypt calibration for target ")
+                .append(targetLatency.toMillis()).append("ms:");
+            medianByCost.forEach((cost, median) ->
+                sb.append(" cost ").append(cost).append('=').append(median.toMillis()).append("ms"));
+            return sb.append(" -> recommended encoder-strength ").append(recommendedCost).toString();
+        }
+    }
+
+    public static void main(String[] args) {
+        Duration target = args.length > 0 ? parseDuration(args[0]) : Duration.ofMillis(250);
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        System.out.println(calibrate(target, samples));
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        return Duration.parse(value);
+    }
+}
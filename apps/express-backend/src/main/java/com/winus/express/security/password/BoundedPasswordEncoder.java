@@ -0,0 +1,43 @@
+package com.winus.express.security.password;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.function.Consumer;
+
+/**
+ * Password encoder that runs the delegate's hashing on the {@link PasswordHashingExecutor}
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Encode on an idle hashing worker and hand the result to {@code onEncoded} on that worker.
+     *
+     * @return false if no worker was idle and nothing was scheduled
+     */
+    public boolean tryEncodeInBackground(String operation, CharSequence rawPassword, Consumer<String> onEncoded) {
+        return executor.trySubmit(operation, () -> onEncoded.accept(delegate.encode(rawPassword)));
+    }
+}
@@ -0,0 +1,26 @@
+package com.winus.express.security.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt encoder that asks for an upgrade whenever the stored cost differs from the configured one.
+ * The stock encoder only upgrades weaker hashes, which would make lowering the cost impossible.
+ */
+public class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final int strength;
+
+    public CostAwareBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        int cost = PasswordHashInfo.bcryptCost(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+}
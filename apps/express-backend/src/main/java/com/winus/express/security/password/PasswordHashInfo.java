@@ -0,0 +1,44 @@
+package com.winus.express.security.password;
+
+/**
+ * Algorithm and cost recorded in a stored password hash.
+ * Hashes are stored as {@code {bcrypt}$2a$12$...}; hashes written before the
+ * algorithm prefix was introduced have no {@code {id}} and are reported as {@code legacy-bcrypt}.
+ */
+public record PasswordHashInfo(String algorithm, int cost) {
+
+    private static final PasswordHashInfo UNKNOWN = new PasswordHashInfo("unknown", -1);
+
+    public static PasswordHashInfo parse(String encodedPassword) {
+        if (encodedPassword == null) {
+            return UNKNOWN;
+        }
+
+        String algorithm = "legacy-bcrypt";
+        String hash = encodedPassword;
+        if (hash.startsWith("{")) {
+            int end = hash.indexOf('}');
+            if (end < 0) {
+                return UNKNOWN;
+            }
+            algorithm = hash.substring(1, end);
+            hash = hash.substring(end + 1);
+        }
+        return new PasswordHashInfo(algorithm, bcryptCost(hash));
+    }
+
+    /**
+     * Cost of a modular-crypt BCrypt hash ({@code $2a$12$...}), or -1 if it is not one
+     */
+    static int bcryptCost(String hash) {
+        if (hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = hash.charAt(4);
+        char ones = hash.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+}
@@ -0,0 +1,148 @@
+package com.winus.express.security.password;
+
+import com.winus.express.common.config.PasswordProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, bounded pool for password hashing.
+ * Caps the CPU that BCrypt can take from request threads: at most {@code max-concurrency} hashes run
+ * at once, at most {@code queue-capacity} wait, and a request that waited longer than
+ * {@code queue-timeout} is rejected instead of hashed. The caller waits at most {@code queue-timeout}
+ * plus {@code hash-timeout} for the result.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long queueTimeoutNanos;
+    private final long resultTimeoutNanos;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueTimer;
+    private final Counter rejectedCounter;
+    private final Map<String, Timer> hashTimers = new ConcurrentHashMap<>();
+
+    public PasswordHashingExecutor(PasswordProperties properties, MeterRegistry meterRegistry) {
+        PasswordProperties.Hashing hashing = properties.getHashing();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            hashing.getMaxConcurrency(), hashing.getMaxConcurrency(),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(hashing.getQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.queueTimeoutNanos = hashing.getQueueTimeout().toNanos();
+        this.resultTimeoutNanos = hashing.getQueueTimeout().plus(hashing.getHashTimeout()).toNanos();
+        this.meterRegistry = meterRegistry;
+
+        this.queueTimer = Timer.builder("password.hashing.queue")
+            .description("Time password hash requests wait for a worker")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+            .description("Password hash requests rejected because the executor was saturated")
+            .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+        Gauge.builder("password.hashing.queued", executor, pool -> pool.getQueue().size())
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run a hashing operation on the pool and wait for its result.
+     *
+     * @throws PasswordHashingRejectedException when the pool is saturated or the result does not arrive in time
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                queueTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > queueTimeoutNanos) {
+                    throw reject("Password hashing queue time budget exceeded");
+                }
+                return hashTimer(operation).record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            throw reject("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(resultTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw reject("Password hashing did not finish in time");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    /**
+     * Run a background hashing task only if a worker is idle, so it never delays a waiting request.
+     *
+     * @return false if the task was not accepted
+     */
+    public boolean trySubmit(String operation, Runnable task) {
+        if (executor.getActiveCount() >= executor.getMaximumPoolSize() || !executor.getQueue().isEmpty()) {
+            return false;
+        }
+        try {
+            executor.execute(() -> hashTimer(operation).record(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private Timer hashTimer(String operation) {
+        return hashTimers.computeIfAbsent(operation, op -> Timer.builder("password.hashing")
+            .description("Password hashing latency by operation")
+            .tag("operation", op)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private PasswordHashingRejectedException reject(String message) {
+        rejectedCounter.increment();
+        log.warn("{} (active={}, queued={})", message, executor.getActiveCount(), executor.getQueue().size());
+        return new PasswordHashingRejectedException(message);
+    }
+}
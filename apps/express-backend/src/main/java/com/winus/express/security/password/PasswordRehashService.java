@@ -0,0 +1,52 @@
+package com.winus.express.security.password;
+
+import com.winus.express.modules.system.user.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-encodes a user's password after a successful login when the stored hash was produced with
+ * another algorithm or cost than the current target. Runs on an idle hashing worker, off the
+ * login response path; if none is idle the upgrade is simply retried on a later login.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordRehashService {
+
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final UserService userService;
+    private final MeterRegistry meterRegistry;
+
+    public void rehashIfNeeded(String userId, String encodedPassword, String rawPassword) {
+        PasswordHashInfo stored = PasswordHashInfo.parse(encodedPassword);
+        meterRegistry.counter("password.login.hash",
+            "algorithm", stored.algorithm(), "cost", String.valueOf(stored.cost())).increment();
+
+        if (rawPassword == null || !passwordEncoder.upgradeEncoding(encodedPassword)) {
+            return;
+        }
+
+        boolean scheduled = passwordEncoder.tryEncodeInBackground("rehash", rawPassword, newHash -> {
+            try {
+                boolean upgraded = userService.upgradePasswordHash(userId, encodedPassword, newHash);
+                count(upgraded ? "upgraded" : "stale");
+                if (upgraded) {
+                    log.debug("Upgraded password hash for user {} from {} cost {}", userId, stored.algorithm(), stored.cost());
+                }
+            } catch (RuntimeException e) {
+                count("failed");
+                log.warn("Could not upgrade password hash for user {}: {}", userId, e.getMessage());
+            }
+        });
+        if (!scheduled) {
+            count("deferred");
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("password.rehash", "result", result).increment();
+    }
+}
@@ -0,0 +1,191 @@
+package com.winus.express.security.permission;
+
+import com.winus.express.common.cache.SecondLevelCache;
+import com.winus.express.modules.system.menu.entity.Menu;
+import com.winus.express.modules.system.menu.event.MenuChangedEvent;
+import com.winus.express.modules.system.role.entity.Role;
+import com.winus.express.modules.system.role.event.RoleMenusChangedEvent;
+import com.winus.express.modules.system.role.repository.RoleRepository;
+import com.winus.express.security.event.UserSecurityChangedEvent;
+import com.winus.express.security.principal.CustomUserPrincipal;
+import com.winus.express.security.provider.CustomUserDetailsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Effective permission codes resolved from an in-memory role index instead of a menu/role/user join.
+ * The index is loaded once from the active roles and their menus; a role-menu change patches the
+ * changed role in place, while role, assignment and menu permission changes drop it so the next read
+ * reloads. Listeners run before the permission stamp is bumped, so a token stamped with the new
+ * version never carries the old permissions. Changes are broadcast so other nodes reload as well.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionIndex {
+
+    static final String CHANNEL = "auth:permission-index:changed";
+
+    private static final Set<UserSecurityChangedEvent.Reason> RELOAD_REASONS = EnumSet.of(
+        UserSecurityChangedEvent.Reason.ROLE_UPDATED,
+        UserSecurityChangedEvent.Reason.ROLES_CHANGED);
+
+    private final RoleRepository roleRepository;
+    private final SecondLevelCache secondLevelCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong generation = new AtomicLong(1);
+    private final AtomicReference<RolePermissionIndex> current = new AtomicReference<>();
+
+    private Counter reloadCounter;
+
+    @PostConstruct
+    void init() {
+        reloadCounter = Counter.builder("permission.index.reloads")
+            .description("Permission index reloads from the database")
+            .register(meterRegistry);
+        Gauge.builder("permission.index.codes", current, ref -> ref.get() != null ? ref.get().size() : 0)
+            .description("Distinct permission codes in the index")
+            .register(meterRegistry);
+        listenerContainer.addMessageListener(this::onChangedMessage, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Permission codes granted to a caller holding the given authorities (only {@code ROLE_} authorities count)
+     */
+    public List<String> getPermissions(Collection<? extends GrantedAuthority> authorities) {
+        return index().permissions(authorities);
+    }
+
+    /**
+     * Permission codes of an enabled user; unknown users have none
+     */
+    public List<String> getPermissions(String userId) {
+        try {
+            CustomUserPrincipal principal = userDetailsService.loadUserByUserId(userId);
+            return getPermissions(principal.getAuthorities());
+        } catch (UsernameNotFoundException e) {
+            return List.of();
+        }
+    }
+
+    public boolean hasPermission(Collection<? extends GrantedAuthority> authorities, String permission) {
+        return index().hasPermission(authorities, permission);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoleMenusChanged(RoleMenusChangedEvent event) {
+        long next = generation.incrementAndGet();
+        // Only an index that was current before this change can be patched; anything else reloads
+        current.updateAndGet(index -> index != null && index.generation() == next - 1
+            ? index.withRole(next, event.roleCode(), event.permissions())
+            : null);
+        broadcast();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (RELOAD_REASONS.contains(event.reason())) {
+            invalidate();
+            broadcast();
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.affectsPermissions()) {
+            invalidate();
+            broadcast();
+        }
+    }
+
+    /**
+     * Permission codes of a role's menus that count towards its grants
+     */
+    public static List<String> permissionsOf(Collection<Menu> menus) {
+        List<String> permissions = new ArrayList<>();
+        for (Menu menu : menus) {
+            if (menu.isActive() && menu.getPerms() != null && !menu.getPerms().isBlank()) {
+                permissions.add(menu.getPerms());
+            }
+        }
+        return permissions;
+    }
+
+    private void onChangedMessage(Message message, byte[] pattern) {
+        if (!nodeId.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            secondLevelCache.evict(SecondLevelCache.Scope.MENUS, SecondLevelCache.Scope.ROLES, SecondLevelCache.Scope.ROLE_MENUS);
+            invalidate();
+        }
+    }
+
+    private void broadcast() {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Could not broadcast permission change, other nodes keep their index: {}", e.getMessage());
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        current.set(null);
+    }
+
+    private RolePermissionIndex index() {
+        RolePermissionIndex index = current.get();
+        if (index != null && index.generation() == generation.get()) {
+            return index;
+        }
+        synchronized (this) {
+            index = current.get();
+            if (index != null && index.generation() == generation.get()) {
+                return index;
+            }
+            long version = generation.get();
+            Map<String, List<String>> permissionsByRole = new HashMap<>();
+            for (Role role : roleRepository.findRolesWithMenus()) {
+                permissionsByRole.put(role.getRoleCode(), permissionsOf(role.getMenus()));
+            }
+            index = RolePermissionIndex.build(version, permissionsByRole);
+            reloadCounter.increment();
+            // An index loaded before a concurrent change is still served once but never replaces a newer one
+            return current.accumulateAndGet(index, (existing, candidate) ->
+                existing == null || existing.generation() < candidate.generation() ? candidate : existing);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.winus.express.security.permission;
+
+import com.winus.express.common.util.JwtUtil;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable role to permission-code index.
+ * Every distinct permission code gets a dense id; each role holds a bitset of its ids, so a caller's
+ * effective permissions are the OR of their roles' bitsets. Codes are materialized as strings only
+ * when a list is requested.
+ */
+final class RolePermissionIndex {
+
+    private final long generation;
+    private final String[] codes;
+    private final Map<String, Integer> ids;
+    private final Map<String, long[]> bitsByRole;
+
+    private RolePermissionIndex(long generation, String[] codes, Map<String, Integer> ids, Map<String, long[]> bitsByRole) {
+        this.generation = generation;
+        this.codes = codes;
+        this.ids = ids;
+        this.bitsByRole = bitsByRole;
+    }
+
+    /**
+     * @param permissionsByRole role code to its permission codes; blank codes are skipped
+     */
+    static RolePermissionIndex build(long generation, Map<String, ? extends Collection<String>> permissionsByRole) {
+        RolePermissionIndex index = new RolePermissionIndex(generation, new String[0], Map.of(), Map.of());
+        for (Map.Entry<String, ? extends Collection<String>> entry : permissionsByRole.entrySet()) {
+            index = index.withRole(generation, entry.getKey(), entry.getValue());
+        }
+        return index;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    int size() {
+        return codes.length;
+    }
+
+    /**
+     * Copy of this index with one role's permissions replaced
+     */
+    RolePermissionIndex withRole(long newGeneration, String roleCode, Collection<String> permissions) {
+        List<String> newCodes = null;
+        Map<String, Integer> newIds = ids;
+        int[] roleIds = new int[permissions.size()];
+        int count = 0;
+        for (String permission : permissions) {
+            if (permission == null || permission.isBlank()) {
+                continue;
+            }
+            Integer id = newIds.get(permission);
+            if (id == null) {
+                if (newCodes == null) {
+                    newCodes = new ArrayList<>(Arrays.asList(codes));
+                    newIds = new HashMap<>(ids);
+                }
+                id = newCodes.size();
+                newCodes.add(permission);
+                newIds.put(permission, id);
+            }
+            roleIds[count++] = id;
+        }
+
+        int totalCodes = newCodes != null ? newCodes.size() : codes.length;
+        long[] bits = new long[words(totalCodes)];
+        for (int i = 0; i < count; i++) {
+            bits[roleIds[i] >>> 6] |= 1L << roleIds[i];
+        }
+        Map<String, long[]> newBitsByRole = new HashMap<>(bitsByRole);
+        newBitsByRole.put(roleKey(roleCode), bits);
+
+        return new RolePermissionIndex(newGeneration,
+            newCodes != null ? newCodes.toArray(String[]::new) : codes,
+            newCodes != null ? Map.copyOf(newIds) : ids,
+            Map.copyOf(newBitsByRole));
+    }
+
+    /**
+     * Effective permission codes of a caller holding the given {@code ROLE_} authorities
+     */
+    List<String> permissions(Collection<? extends GrantedAuthority> authorities) {
+        long[] effective = new long[words(codes.length)];
+        for (GrantedAuthority authority : authorities) {
+            long[] bits = roleBits(authority);
+            if (bits != null) {
+                for (int i = 0; i < bits.length; i++) {
+                    effective[i] |= bits[i];
+                }
+            }
+        }
+
+        List<String> result = new ArrayList<>();
+        for (int word = 0; word < effective.length; word++) {
+            long remaining = effective[word];
+            while (remaining != 0) {
+                result.add(codes[(word << 6) + Long.numberOfTrailingZeros(remaining)]);
+                remaining &= remaining - 1;
+            }
+        }
+        return result;
+    }
+
+    boolean hasPermission(Collection<? extends GrantedAuthority> authorities, String permission) {
+        Integer id = ids.get(permission);
+        if (id == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : authorities) {
+            long[] bits = roleBits(authority);
+            if (bits != null && (id >>> 6) < bits.length && (bits[id >>> 6] & (1L << id)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long[] roleBits(GrantedAuthority authority) {
+        String name = authority.getAuthority();
+        return name != null && name.startsWith(JwtUtil.ROLE_PREFIX)
+            ? bitsByRole.get(name.substring(JwtUtil.ROLE_PREFIX.length()))
+            : null;
+    }
+
+    private static String roleKey(String roleCode) {
+        return roleCode.toUpperCase();
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
@@ -1,8 +1,10 @@
 package com.winus.express.security.provider;
 
 import com.winus.express.modules.system.role.entity.Role;
+import com.winus.express.modules.system.user.dto.LoginUser;
 import com.winus.express.modules.system.user.entity.User;
 import com.winus.express.modules.system.user.service.UserService;
+import com.winus.express.security.cache.PrincipalCache;
 import com.winus.express.security.principal.CustomUserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,16 +25,52 @@ import java.util.stream.Collectors;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserService userService;
+    private final PrincipalCache principalCache;
 
+    /**
+     * Load by login name for password authentication, together with the user's permission codes.
+     * Never cached: the result carries the password hash.
+     */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userService.getUserByUsername(username)
+        LoginUser user = userService.getLoginUser(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
+        return CustomUserPrincipal.builder()
+            .userId(user.userId())
+            .username(user.userName())
+            .password(user.password())
+            .email(user.email())
+            .realName(user.realName())
+            .authorities(user.roleCodes().stream()
+                .map(roleCode -> new SimpleGrantedAuthority("ROLE_" + roleCode.toUpperCase()))
+                .toList())
+            .enabled(user.enabled())
+            .accountNonExpired(true)
+            .accountNonLocked(user.accountNonLocked())
+            .credentialsNonExpired(true)
+            .permissions(user.permissions())
+            .build();
+    }
+
+    /**
+     * Load by userId (the JWT subject) through the principal cache.
+     */
+    public CustomUserPrincipal loadUserByUserId(String userId) throws UsernameNotFoundException {
+        CustomUserPrincipal principal = principalCache.get(userId, id -> userService.getUserWithRoles(id)
+            .map(this::toPrincipal)
+            .orElse(null));
+
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found: " + userId);
+        }
+        return principal;
+    }
+
+    private CustomUserPrincipal toPrincipal(User user) {
         return CustomUserPrincipal.builder()
             .userId(user.getUserId())
             .username(user.getUserName())
-            .password(user.getPassword())
             .email(user.getEmail())
             .realName(user.getRealName())
             .authorities(mapRolesToAuthorities(user.getRoles()))
@@ -49,4 +87,4 @@ public class CustomUserDetailsService implements UserDetailsService {
             .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getRoleCode().toUpperCase()))
             .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
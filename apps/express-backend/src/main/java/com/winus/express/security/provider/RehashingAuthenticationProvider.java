@@ -0,0 +1,32 @@
+package com.winus.express.security.provider;
+
+import com.winus.express.security.password.PasswordRehashService;
+import com.winus.express.security.principal.CustomUserPrincipal;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * DAO authentication provider that hands outdated password hashes to {@link PasswordRehashService}.
+ * Unlike the built-in {@code UserDetailsPasswordService} hook, the new hash is not computed on the
+ * login thread.
+ */
+public class RehashingAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final PasswordRehashService rehashService;
+
+    public RehashingAuthenticationProvider(UserDetailsService userDetailsService, PasswordRehashService rehashService) {
+        super(userDetailsService);
+        this.rehashService = rehashService;
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication, UserDetails user) {
+        if (user instanceof CustomUserPrincipal userPrincipal && authentication.getCredentials() != null) {
+            rehashService.rehashIfNeeded(userPrincipal.getUserId(), user.getPassword(),
+                authentication.getCredentials().toString());
+        }
+        return super.createSuccessAuthentication(principal, authentication, user);
+    }
+}
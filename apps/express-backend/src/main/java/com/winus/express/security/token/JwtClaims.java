@@ -0,0 +1,21 @@
+package com.winus.express.security.token;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Verified JWT claims.
+ * Profile, role and permission fields are only present on self-contained access tokens.
+ */
+public record JwtClaims(String userId, String tokenId, Instant issuedAt, Instant expiresAt,
+                        String username, String realName, String email,
+                        List<String> roles, List<String> permissions, String permissionStamp) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    public boolean hasEmbeddedAuthorities() {
+        return roles != null && permissions != null && permissionStamp != null;
+    }
+}
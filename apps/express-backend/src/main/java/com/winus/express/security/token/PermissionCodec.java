@@ -0,0 +1,68 @@
+package com.winus.express.security.token;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Compact string encoding of permission codes for embedding in access tokens.
+ * Codes are grouped by the prefix before their last ':' so that
+ * {@code system:user:list, system:user:add, system:role:list} becomes
+ * {@code system:user:list,add;system:role:list}.
+ */
+public final class PermissionCodec {
+
+    private static final char GROUP_SEPARATOR = ';';
+    private static final char CODE_SEPARATOR = ',';
+    private static final char SEGMENT_SEPARATOR = ':';
+
+    private PermissionCodec() {
+    }
+
+    /**
+     * Encode permission codes, or return {@code null} when a code contains a reserved separator.
+     */
+    public static String encode(Collection<String> permissions) {
+        Map<String, TreeSet<String>> groups = new TreeMap<>();
+        for (String permission : permissions) {
+            if (permission == null || permission.isEmpty()) {
+                continue;
+            }
+            if (permission.indexOf(GROUP_SEPARATOR) >= 0 || permission.indexOf(CODE_SEPARATOR) >= 0) {
+                return null;
+            }
+            int split = permission.lastIndexOf(SEGMENT_SEPARATOR) + 1;
+            groups.computeIfAbsent(permission.substring(0, split), key -> new TreeSet<>())
+                .add(permission.substring(split));
+        }
+
+        StringBuilder encoded = new StringBuilder();
+        for (Map.Entry<String, TreeSet<String>> group : groups.entrySet()) {
+            if (!encoded.isEmpty()) {
+                encoded.append(GROUP_SEPARATOR);
+            }
+            encoded.append(group.getKey()).append(String.join(String.valueOf(CODE_SEPARATOR), group.getValue()));
+        }
+        return encoded.toString();
+    }
+
+    public static List<String> decode(String encoded) {
+        List<String> permissions = new ArrayList<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return permissions;
+        }
+        for (String group : encoded.split(String.valueOf(GROUP_SEPARATOR))) {
+            String[] codes = group.split(String.valueOf(CODE_SEPARATOR));
+            int split = codes[0].lastIndexOf(SEGMENT_SEPARATOR) + 1;
+            String prefix = codes[0].substring(0, split);
+            permissions.add(codes[0]);
+            for (int i = 1; i < codes.length; i++) {
+                permissions.add(prefix + codes[i]);
+            }
+        }
+        return permissions;
+    }
+}
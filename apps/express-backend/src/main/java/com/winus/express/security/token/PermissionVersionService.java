@@ -0,0 +1,207 @@
+package com.winus.express.security.token;
+
+import com.winus.express.modules.system.menu.event.MenuChangedEvent;
+import com.winus.express.security.event.UserSecurityChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Permission version stamps for self-contained access tokens.
+ * A stamp is {@code <epoch>.<userVersion>}: the epoch moves when a menu's permission code changes,
+ * the user version moves when the user's roles, role menus or account state change.
+ * Counters live in Redis and are mirrored locally so checking a stamp is normally a map lookup.
+ * A counter that comes back from Redis below this node's mirror (the key was lost to a restart, eviction
+ * or flush) is written back above the mirror, so a stamp issued before a change never becomes current again.
+ * While Redis is unreachable, or a bump made on this node has not reached it yet, no stamp is current and
+ * none is issued: other nodes cannot see such a bump, so embedded authorities are not trusted anywhere until
+ * the retry has published it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PermissionVersionService {
+
+    static final String USER_VERSIONS_KEY = "auth:perm-version:user";
+    static final String EPOCH_KEY = "auth:perm-version:epoch";
+    static final String CHANNEL = "auth:perm-version";
+
+    private static final String EPOCH_FIELD = "";
+    private static final long REDIS_RETRY_MILLIS = 30_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.security.jwt.permission-version-ttl:60s}")
+    private Duration localTtl;
+
+    private final Map<String, LocalVersion> versions = new ConcurrentHashMap<>();
+    /** Fields bumped on this node whose bump has not been stored in Redis yet */
+    private final Set<String> unpublishedBumps = ConcurrentHashMap.newKeySet();
+    private volatile long redisRetryAt;
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this::onVersionMessage, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Current stamp of the user, or null while versions cannot be agreed on with the other nodes.
+     */
+    public String currentStamp(String userId) {
+        String stamp = version(EPOCH_FIELD) + "." + version(userId);
+        return redisAvailable() && unpublishedBumps.isEmpty() ? stamp : null;
+    }
+
+    public boolean isCurrent(String userId, String stamp) {
+        return stamp != null && stamp.equals(currentStamp(userId));
+    }
+
+    public void bumpUsers(Collection<String> userIds) {
+        userIds.forEach(this::bump);
+    }
+
+    public void bumpEpoch() {
+        bump(EPOCH_FIELD);
+    }
+
+    /**
+     * Store bumps that could not be written to Redis when they were made.
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.permission-version-retry-interval:PT5S}",
+               initialDelayString = "${app.security.jwt.permission-version-retry-interval:PT5S}")
+    public void publishPending() {
+        for (String field : List.copyOf(unpublishedBumps)) {
+            try {
+                bumpShared(field);
+                unpublishedBumps.remove(field);
+            } catch (DataAccessException e) {
+                markRedisUnavailable(e);
+                return;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        bumpUsers(event.userIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.affectsPermissions()) {
+            bumpEpoch();
+        }
+    }
+
+    private long version(String field) {
+        LocalVersion local = versions.get(field);
+        long now = System.currentTimeMillis();
+        if (local != null && (local.expiresAt() > now || !redisAvailable())) {
+            return local.version();
+        }
+
+        long mirrored = local != null ? local.version() : 0L;
+        long version = mirrored;
+        if (redisAvailable() && !unpublishedBumps.contains(field)) {
+            try {
+                Object stored = EPOCH_FIELD.equals(field)
+                    ? redisTemplate.opsForValue().get(EPOCH_KEY)
+                    : redisTemplate.opsForHash().get(USER_VERSIONS_KEY, field);
+                version = stored != null ? Long.parseLong(stored.toString()) : 0L;
+                if (version < mirrored) {
+                    version = restart(field, version, mirrored);
+                }
+            } catch (DataAccessException e) {
+                markRedisUnavailable(e);
+            }
+        }
+        versions.put(field, new LocalVersion(version, now + localTtl.toMillis()));
+        return version;
+    }
+
+    private void bump(String field) {
+        if (redisAvailable() && !unpublishedBumps.contains(field)) {
+            try {
+                bumpShared(field);
+                return;
+            } catch (DataAccessException e) {
+                markRedisUnavailable(e);
+            }
+        }
+        long expiresAt = System.currentTimeMillis() + localTtl.toMillis();
+        versions.compute(field, (key, local) ->
+            new LocalVersion(local != null ? local.version() + 1 : 1L, expiresAt));
+        unpublishedBumps.add(field);
+    }
+
+    private void bumpShared(String field) {
+        Long version = EPOCH_FIELD.equals(field)
+            ? redisTemplate.opsForValue().increment(EPOCH_KEY)
+            : redisTemplate.opsForHash().increment(USER_VERSIONS_KEY, field, 1);
+        LocalVersion local = versions.get(field);
+        long mirrored = local != null ? local.version() : 0L;
+        if (version == null || version <= mirrored) {
+            version = restart(field, version, mirrored);
+        } else {
+            redisTemplate.convertAndSend(CHANNEL, field + ":" + version);
+        }
+        versions.put(field, new LocalVersion(version, System.currentTimeMillis() + localTtl.toMillis()));
+    }
+
+    /**
+     * Move a counter that Redis lost past this node's mirror and publish it.
+     */
+    private long restart(String field, Long stored, long mirrored) {
+        long version = mirrored + 1;
+        log.warn("Permission version {} restarted at {} below {}, moving it past this node's",
+            EPOCH_FIELD.equals(field) ? "epoch" : "of user " + field, stored, mirrored);
+        if (EPOCH_FIELD.equals(field)) {
+            redisTemplate.opsForValue().set(EPOCH_KEY, Long.toString(version));
+        } else {
+            redisTemplate.opsForHash().put(USER_VERSIONS_KEY, field, Long.toString(version));
+        }
+        redisTemplate.convertAndSend(CHANNEL, field + ":" + version);
+        return version;
+    }
+
+    private void onVersionMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int split = body.lastIndexOf(':');
+        String field = body.substring(0, split);
+        long version = Long.parseLong(body.substring(split + 1));
+        long expiresAt = System.currentTimeMillis() + localTtl.toMillis();
+        versions.merge(field, new LocalVersion(version, expiresAt),
+            (current, received) -> received.version() > current.version() ? received : current);
+    }
+
+    private boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisRetryAt;
+    }
+
+    private void markRedisUnavailable(DataAccessException e) {
+        redisRetryAt = System.currentTimeMillis() + REDIS_RETRY_MILLIS;
+        log.warn("Redis permission versions unavailable, using local counters for {}ms: {}",
+            REDIS_RETRY_MILLIS, e.getMessage());
+    }
+
+    private record LocalVersion(long version, long expiresAt) {
+    }
+}
@@ -0,0 +1,276 @@
+package com.winus.express.security.token;
+
+import com.winus.express.security.event.UserSecurityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Token revocation backed by Redis.
+ * Revoked token ids are stored in Redis with a TTL equal to the token's remaining lifetime and
+ * mirrored into a local Bloom filter kept current through pub/sub, so the common case (a token
+ * that was never revoked) is answered without a network hop. Filter hits are confirmed in Redis.
+ * A revocation (single token or all of a user's sessions) that could not be written to Redis is kept
+ * in a local map until a retry persists it, so it holds on this node meanwhile and reaches the others
+ * once Redis is back.
+ * "Revoke all sessions" stores a per-user not-before time; tokens issued before it are rejected.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    static final String TOKEN_KEY_PREFIX = "auth:revoked:jti:";
+    static final String USER_KEY_PREFIX = "auth:revoked:user:";
+    static final String CHANNEL = "auth:revoked";
+
+    private static final String TOKEN_MESSAGE = "jti:";
+    private static final String USER_MESSAGE = "user:";
+    private static final Set<UserSecurityChangedEvent.Reason> REVOKING_REASONS =
+        EnumSet.of(UserSecurityChangedEvent.Reason.LOCKED, UserSecurityChangedEvent.Reason.DELETED);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.security.jwt.refresh-token-expiration}")
+    private long refreshTokenExpiration;
+
+    @Value("${app.security.revocation.expected-revocations:100000}")
+    private int expectedRevocations;
+
+    @Value("${app.security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter revokedTokens;
+    private volatile Queue<String> pendingDuringRebuild;
+    private final Map<String, Long> userNotBefore = new ConcurrentHashMap<>();
+    /** Revoked token id -> expiry (epoch millis) for revocations not yet stored in Redis */
+    private final Map<String, Long> unpersistedTokens = new ConcurrentHashMap<>();
+    /** User id -> not-before time (epoch millis) for session revocations not yet stored in Redis */
+    private final Map<String, Long> unpersistedUsers = new ConcurrentHashMap<>();
+
+    private Counter rejectedCounter;
+    private Counter falsePositiveCounter;
+
+    @PostConstruct
+    void init() {
+        revokedTokens = new BloomFilter(expectedRevocations, falsePositiveRate);
+        rejectedCounter = Counter.builder("jwt.revocation.rejected")
+            .description("Tokens rejected because they were revoked")
+            .register(meterRegistry);
+        falsePositiveCounter = Counter.builder("jwt.revocation.filter.false_positive")
+            .description("Revocation filter hits not confirmed by Redis")
+            .register(meterRegistry);
+        listenerContainer.addMessageListener(this::onRevocationMessage, new ChannelTopic(CHANNEL));
+        rebuild();
+    }
+
+    /**
+     * Revoke a single token for the rest of its lifetime.
+     */
+    public void revoke(JwtClaims claims) {
+        if (claims.tokenId() == null || claims.expiresAt() == null) {
+            return;
+        }
+        long ttl = claims.expiresAt().toEpochMilli() - System.currentTimeMillis();
+        if (ttl <= 0) {
+            return;
+        }
+
+        addToken(claims.tokenId());
+        try {
+            persistToken(claims.tokenId(), ttl);
+        } catch (DataAccessException e) {
+            unpersistedTokens.put(claims.tokenId(), claims.expiresAt().toEpochMilli());
+            log.warn("Could not store token revocation in Redis, keeping it on this node until a retry succeeds: {}",
+                e.getMessage());
+        }
+    }
+
+    /**
+     * Revoke every token issued to the user up to now.
+     * Token issue times have second precision, so tokens issued later within the same second are rejected too.
+     */
+    public void revokeAllForUser(String userId) {
+        long notBefore = System.currentTimeMillis();
+        userNotBefore.merge(userId, notBefore, Math::max);
+        try {
+            persistUser(userId, notBefore);
+        } catch (DataAccessException e) {
+            unpersistedUsers.merge(userId, notBefore, Math::max);
+            log.warn("Could not store session revocation in Redis, keeping it on this node until a retry succeeds: {}",
+                e.getMessage());
+        }
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        Long notBefore = userNotBefore.get(claims.userId());
+        if (notBefore != null && claims.issuedAt() != null && claims.issuedAt().toEpochMilli() < notBefore) {
+            rejectedCounter.increment();
+            return true;
+        }
+
+        if (claims.tokenId() == null || !revokedTokens.mightContain(claims.tokenId())) {
+            return false;
+        }
+        if (unpersistedTokens.containsKey(claims.tokenId())) {
+            rejectedCounter.increment();
+            return true;
+        }
+
+        boolean revoked;
+        try {
+            revoked = Boolean.TRUE.equals(redisTemplate.hasKey(TOKEN_KEY_PREFIX + claims.tokenId()));
+        } catch (DataAccessException e) {
+            // Fail closed: a filter hit that cannot be confirmed is treated as revoked
+            revoked = true;
+        }
+        if (revoked) {
+            rejectedCounter.increment();
+        } else {
+            falsePositiveCounter.increment();
+        }
+        return revoked;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (REVOKING_REASONS.contains(event.reason())) {
+            event.userIds().forEach(this::revokeAllForUser);
+        }
+    }
+
+    /**
+     * Store token and session revocations that could not be written to Redis when they were made.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.retry-interval:PT30S}",
+               initialDelayString = "${app.security.revocation.retry-interval:PT30S}")
+    public void persistPending() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : unpersistedTokens.entrySet()) {
+            long ttl = entry.getValue() - now;
+            try {
+                if (ttl > 0) {
+                    persistToken(entry.getKey(), ttl);
+                }
+                unpersistedTokens.remove(entry.getKey(), entry.getValue());
+            } catch (DataAccessException e) {
+                log.warn("Could not store {} pending token revocations in Redis: {}", unpersistedTokens.size(),
+                    e.getMessage());
+                return;
+            }
+        }
+
+        long cutoff = now - refreshTokenExpiration;
+        for (Map.Entry<String, Long> entry : unpersistedUsers.entrySet()) {
+            try {
+                if (entry.getValue() >= cutoff) {
+                    // A newer revocation may have arrived from another node meanwhile; never write an older time over it
+                    persistUser(entry.getKey(), Math.max(entry.getValue(),
+                        userNotBefore.getOrDefault(entry.getKey(), entry.getValue())));
+                }
+                unpersistedUsers.remove(entry.getKey(), entry.getValue());
+            } catch (DataAccessException e) {
+                log.warn("Could not store {} pending session revocations in Redis: {}", unpersistedUsers.size(),
+                    e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rebuild the local state from Redis. Bloom filters cannot forget entries, so a periodic
+     * rebuild drops revocations whose tokens have expired (their Redis keys are gone).
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.rebuild-interval:PT1H}",
+               initialDelayString = "${app.security.revocation.rebuild-interval:PT1H}")
+    public void rebuild() {
+        Queue<String> pending = new ConcurrentLinkedQueue<>();
+        pendingDuringRebuild = pending;
+        try {
+            BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveRate);
+            scan(TOKEN_KEY_PREFIX, key -> rebuilt.add(key.substring(TOKEN_KEY_PREFIX.length())));
+            unpersistedTokens.keySet().forEach(rebuilt::add);
+
+            Map<String, Long> notBefore = new ConcurrentHashMap<>();
+            scan(USER_KEY_PREFIX, key -> {
+                String value = redisTemplate.opsForValue().get(key);
+                if (value != null) {
+                    notBefore.put(key.substring(USER_KEY_PREFIX.length()), Long.parseLong(value));
+                }
+            });
+
+            revokedTokens = rebuilt;
+            long cutoff = Instant.now().minusMillis(refreshTokenExpiration).toEpochMilli();
+            userNotBefore.entrySet().removeIf(entry -> entry.getValue() < cutoff);
+            notBefore.forEach((userId, value) -> userNotBefore.merge(userId, value, Math::max));
+        } catch (DataAccessException e) {
+            log.warn("Could not rebuild token revocation filter from Redis: {}", e.getMessage());
+        } finally {
+            pendingDuringRebuild = null;
+            pending.forEach(revokedTokens::add);
+        }
+    }
+
+    private void onRevocationMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (body.startsWith(TOKEN_MESSAGE)) {
+            addToken(body.substring(TOKEN_MESSAGE.length()));
+        } else if (body.startsWith(USER_MESSAGE)) {
+            int split = body.lastIndexOf(':');
+            userNotBefore.merge(body.substring(USER_MESSAGE.length(), split),
+                Long.parseLong(body.substring(split + 1)), Math::max);
+        }
+    }
+
+    private void persistToken(String tokenId, long ttl) {
+        redisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + tokenId, "1", Duration.ofMillis(ttl));
+        redisTemplate.convertAndSend(CHANNEL, TOKEN_MESSAGE + tokenId);
+    }
+
+    private void persistUser(String userId, long notBefore) {
+        redisTemplate.opsForValue().set(USER_KEY_PREFIX + userId, String.valueOf(notBefore),
+            Duration.ofMillis(refreshTokenExpiration));
+        redisTemplate.convertAndSend(CHANNEL, USER_MESSAGE + userId + ":" + notBefore);
+    }
+
+    private void addToken(String tokenId) {
+        revokedTokens.add(tokenId);
+        Queue<String> pending = pendingDuringRebuild;
+        if (pending != null) {
+            pending.add(tokenId);
+        }
+    }
+
+    private void scan(String prefix, Consumer<String> action) {
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(action);
+        }
+    }
+}
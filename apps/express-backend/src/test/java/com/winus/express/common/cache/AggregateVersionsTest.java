@@ -0,0 +1,55 @@
+package com.winus.express.common.cache;
+
+import com.winus.express.common.cache.AggregateVersions.Aggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AggregateVersionsTest {
+
+    private static final String ROLES_KEY = AggregateVersions.KEY_PREFIX + "ROLES";
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private AggregateVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.get(ROLES_KEY)).thenReturn("41");
+        versions = new AggregateVersions(redisTemplate, mock(RedisMessageListenerContainer.class),
+            mock(SecondLevelCache.class));
+        versions.init();
+    }
+
+    @Test
+    void bumpFollowsTheSharedCounter() {
+        when(values.increment(ROLES_KEY)).thenReturn(42L);
+
+        versions.bump(Aggregate.ROLES);
+
+        assertThat(versions.current(Aggregate.ROLES)).isEqualTo(42);
+        verify(values, never()).set(ROLES_KEY, "42");
+        verify(redisTemplate).convertAndSend(AggregateVersions.CHANNEL, "ROLES:42");
+    }
+
+    @Test
+    void bumpAfterTheSharedCounterWasLostMovesPastTheMirror() {
+        when(values.increment(ROLES_KEY)).thenReturn(1L);
+
+        versions.bump(Aggregate.ROLES);
+
+        assertThat(versions.current(Aggregate.ROLES)).isEqualTo(42);
+        verify(values).set(ROLES_KEY, "42");
+        verify(redisTemplate).convertAndSend(AggregateVersions.CHANNEL, "ROLES:42");
+    }
+}
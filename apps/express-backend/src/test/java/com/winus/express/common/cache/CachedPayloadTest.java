@@ -0,0 +1,77 @@
+package com.winus.express.common.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedPayloadTest {
+
+    private static final byte[] JSON = "[{\"menuId\":\"1\",\"menuName\":\"system\"},{\"menuId\":\"2\",\"menuName\":\"system\"}]"
+        .repeat(20).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void servesTheVariantTheClientAccepts() throws IOException {
+        CachedPayload payload = CachedPayload.of(7, JSON);
+
+        ResponseEntity<byte[]> gzip = payload.toResponse("deflate, gzip;q=0.8", null);
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(inflate(new GZIPInputStream(new ByteArrayInputStream(gzip.getBody())))).isEqualTo(JSON);
+
+        ResponseEntity<byte[]> deflate = payload.toResponse("gzip;q=0, deflate", null);
+        assertThat(deflate.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+        assertThat(inflate(new InflaterInputStream(new ByteArrayInputStream(deflate.getBody())))).isEqualTo(JSON);
+
+        ResponseEntity<byte[]> identity = payload.toResponse(null, null);
+        assertThat(identity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(identity.getBody()).isSameAs(JSON);
+    }
+
+    @Test
+    void skipsCompressionThatDoesNotShrinkTheBody() {
+        CachedPayload payload = CachedPayload.of(1, "[]".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(payload.gzip()).isNull();
+        assertThat(payload.deflate()).isNull();
+        assertThat(payload.toResponse("gzip, deflate", null).getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    void answersNotModifiedForTheTagOfTheServedVariant() {
+        CachedPayload payload = CachedPayload.of(7, JSON);
+        String gzipTag = payload.toResponse("gzip", null).getHeaders().getETag();
+        String identityTag = payload.toResponse(null, null).getHeaders().getETag();
+
+        assertThat(gzipTag).isNotEqualTo(identityTag).startsWith("\"").endsWith("-gzip\"");
+        assertThat(payload.toResponse("gzip", "\"other\", W/" + gzipTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(payload.toResponse("gzip", identityTag).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(CachedPayload.of(8, JSON).toResponse(null, identityTag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(CachedPayload.of(8, "[]".getBytes(StandardCharsets.UTF_8)).toResponse(null, identityTag).getStatusCode())
+            .isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void parsesAcceptEncoding() {
+        assertThat(CachedPayload.accepts("br, GZIP", "gzip")).isTrue();
+        assertThat(CachedPayload.accepts("*", "deflate")).isTrue();
+        assertThat(CachedPayload.accepts("gzip; q=0", "gzip")).isFalse();
+        assertThat(CachedPayload.accepts("gzip;q=0.0", "gzip")).isFalse();
+        assertThat(CachedPayload.accepts("identity", "gzip")).isFalse();
+    }
+
+    private static byte[] inflate(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.winus.express.common.cache;
+
+import com.winus.express.common.config.SecondLevelCacheConfig;
+import com.winus.express.common.config.SecondLevelCacheProperties;
+import com.winus.express.common.sql.SqlRequestStats;
+import com.winus.express.common.sql.SqlStatementTracker;
+import com.winus.express.modules.system.menu.entity.Menu;
+import com.winus.express.modules.system.menu.repository.MenuRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SecondLevelCacheConfig.class, SecondLevelCacheProperties.class, SecondLevelCache.class,
+    SecondLevelCacheTest.Metrics.class})
+class SecondLevelCacheTest {
+
+    @MockitoBean
+    private StringRedisTemplate redisTemplate;
+
+    @MockitoBean
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private MenuRepository menuRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void insertMenus() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        menuRepository.save(menu("M1", 2));
+        menuRepository.save(menu("M2", 1));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SqlStatementTracker.end();
+        menuRepository.deleteAll();
+    }
+
+    @Test
+    void entityIsServedFromCacheOnceLoaded() {
+        menuRepository.findById("M1").orElseThrow();
+
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        Menu cached = menuRepository.findById("M1").orElseThrow();
+
+        assertThat(stats.statements()).isZero();
+        assertThat(cached.getMenuName()).isEqualTo("menu-M1");
+        assertThat(cached.isNew()).isFalse();
+        assertThat(meterRegistry.get("hibernate.cache.hit.ratio").tag("region", SecondLevelCache.MENU_REGION)
+            .gauge().value()).isGreaterThan(0);
+    }
+
+    @Test
+    void activeListIsServedFromQueryCache() {
+        menuRepository.findByStatusAndDelFlagOrderBySortNo("1", "0");
+
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        assertThat(menuRepository.findByStatusAndDelFlagOrderBySortNo("1", "0"))
+            .extracting(Menu::getMenuId).containsExactly("M2", "M1");
+        assertThat(stats.statements()).isZero();
+    }
+
+    @Test
+    void remoteChangeEvictsRegionAndQueryResults() {
+        menuRepository.findById("M1").orElseThrow();
+        menuRepository.findByStatusAndDelFlagOrderBySortNo("1", "0");
+
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), eq(new ChannelTopic(SecondLevelCache.CHANNEL)));
+        listener.getValue().onMessage(message("other-node:MENUS"), null);
+
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        menuRepository.findById("M1").orElseThrow();
+        menuRepository.findByStatusAndDelFlagOrderBySortNo("1", "0");
+        assertThat(stats.statements()).isEqualTo(2);
+        assertThat(meterRegistry.get("hibernate.cache.remote.evictions").tag("scope", "menus").counter().count())
+            .isEqualTo(1);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(SecondLevelCache.CHANNEL.getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Menu menu(String id, int sortNo) {
+        Menu menu = new Menu(id, "menu-" + id, "C");
+        menu.setParentId(null); // generated schema has a self-referencing foreign key
+        menu.setSortNo(sortNo);
+        menu.setCreateTime(LocalDateTime.now());
+        return menu;
+    }
+}
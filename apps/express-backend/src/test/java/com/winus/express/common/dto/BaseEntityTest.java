@@ -0,0 +1,85 @@
+package com.winus.express.common.dto;
+
+import com.winus.express.common.sql.SqlRequestStats;
+import com.winus.express.common.sql.SqlStatementTracker;
+import com.winus.express.modules.system.role.entity.Role;
+import com.winus.express.modules.system.role.repository.RoleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class BaseEntityTest {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @AfterEach
+    void endTracking() {
+        SqlStatementTracker.end();
+    }
+
+    @Test
+    void savingNewEntitiesInsertsWithoutSelectingFirst() {
+        List<Role> roles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            roles.add(role("R" + i));
+        }
+
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        roleRepository.saveAll(roles);
+        entityManager.flush();
+
+        // One batched INSERT; merge would have issued a SELECT per role before it
+        assertThat(stats.statements()).isEqualTo(1);
+        assertThat(stats.mostRepeated()).startsWith("insert into tb_role");
+    }
+
+    @Test
+    void loadedEntitiesAreNotNew() {
+        roleRepository.save(role("R1"));
+        entityManager.flush();
+        entityManager.clear();
+
+        Role loaded = roleRepository.findById("R1").orElseThrow();
+        assertThat(loaded.isNew()).isFalse();
+
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        loaded.setRoleName("renamed");
+        roleRepository.save(loaded);
+        entityManager.flush();
+
+        assertThat(stats.statements()).isEqualTo(1);
+        assertThat(stats.mostRepeated()).startsWith("update tb_role");
+    }
+
+    @Test
+    void persistedEntityIsNoLongerNew() {
+        Role role = role("R1");
+        assertThat(role.isNew()).isTrue();
+
+        roleRepository.save(role);
+
+        assertThat(role.isNew()).isFalse();
+        assertThat(role.getId()).isEqualTo("R1");
+    }
+
+    private static Role role(String id) {
+        Role role = new Role(id, "role " + id, "CODE_" + id);
+        role.setCreateTime(LocalDateTime.now());
+        return role;
+    }
+}
@@ -0,0 +1,114 @@
+package com.winus.express.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final long EPOCH = 1_735_689_600_000L;
+
+    @Test
+    void idsIncreaseWithinOneMillisecondAndAcrossSequenceOverflow() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, () -> 7, () -> EPOCH + 1_000);
+
+        long previous = -1;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextLong();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void clockMovingBackwardsDoesNotRepeatIds() {
+        AtomicLong clock = new AtomicLong(EPOCH + 5_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, () -> 1, clock::get);
+
+        long before = generator.nextLong();
+        clock.set(EPOCH + 1_000);
+        long after = generator.nextLong();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void stringOrderMatchesGenerationOrder() {
+        AtomicLong clock = new AtomicLong(EPOCH);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, () -> SnowflakeIdGenerator.MAX_NODE_ID, clock::get);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            clock.addAndGet(i % 3 == 0 ? 1 : 0);
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(SnowflakeIdGenerator.ENCODED_LENGTH));
+        assertThat(ids).isSorted();
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+    }
+
+    @Test
+    void encodingPreservesNumericOrder() {
+        long[] values = {0, 1, 31, 32, 1L << 40, Long.MAX_VALUE >>> 1, Long.MAX_VALUE};
+        for (int i = 1; i < values.length; i++) {
+            assertThat(SnowflakeIdGenerator.encode(values[i]))
+                .isGreaterThan(SnowflakeIdGenerator.encode(values[i - 1]));
+        }
+    }
+
+    @Test
+    void nodesSharingAMillisecondProduceDistinctIds() {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 4).parallel().forEach(node -> {
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, () -> node, () -> EPOCH + 42);
+            for (int i = 0; i < 2_000; i++) {
+                ids.add(generator.nextId());
+            }
+        });
+
+        assertThat(ids).hasSize(8_000);
+    }
+
+    @Test
+    void newKeysLandInTheLastIndexBlockInsteadOfAcrossTheIndex() {
+        AtomicLong ticks = new AtomicLong();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, () -> 3, () -> EPOCH + ticks.incrementAndGet() / 4);
+
+        int snowflakeBlocks = blocksTouched(generator::nextId);
+        int uuidBlocks = blocksTouched(() -> UUID.randomUUID().toString());
+
+        assertThat(snowflakeBlocks).isEqualTo(1);
+        assertThat(uuidBlocks).isGreaterThan(600);
+    }
+
+    /**
+     * Leaf blocks of a sorted key index (64 keys each, as a B-tree leaf would hold) that a batch of 1000
+     * inserts lands in, after 100k keys from the same source are already indexed
+     */
+    private static int blocksTouched(Supplier<String> keys) {
+        List<String> index = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            index.add(keys.get());
+        }
+        Collections.sort(index);
+
+        Set<Integer> blocks = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            int position = -Collections.binarySearch(index, keys.get()) - 1;
+            blocks.add(Math.min(position, index.size() - 1) / 64);
+        }
+        return blocks.size();
+    }
+}
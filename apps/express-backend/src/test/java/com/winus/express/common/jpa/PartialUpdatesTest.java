@@ -0,0 +1,109 @@
+package com.winus.express.common.jpa;
+
+import com.winus.express.common.sql.SqlRequestStats;
+import com.winus.express.common.sql.SqlStatementTracker;
+import com.winus.express.modules.system.menu.entity.Menu;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(PartialUpdates.class)
+class PartialUpdatesTest {
+
+    @Autowired
+    private PartialUpdates partialUpdates;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void insertMenu() {
+        Menu menu = new Menu("M1", "menu", "C");
+        menu.setParentId(null); // generated schema has a self-referencing foreign key
+        menu.setCreateTime(LocalDateTime.now());
+        entityManager.persistAndFlush(menu);
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void endTracking() {
+        SqlStatementTracker.end();
+    }
+
+    @Test
+    void updatesOnlyGivenColumnsInOneStatement() {
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        boolean updated = partialUpdates.of(Menu.class, "M1")
+            .set("menuName", "renamed")
+            .set("icon", null)
+            .set("sortNo", 7)
+            .expectVersion(0L)
+            .execute();
+
+        assertThat(updated).isTrue();
+        assertThat(stats.statements()).isEqualTo(1);
+        assertThat(stats.mostRepeated())
+            .startsWith("update tb_menu ")
+            .contains("menu_name", "sort_no", "update_time", "version")
+            .doesNotContain("icon", "menu_path", "remark");
+
+        Menu menu = entityManager.find(Menu.class, "M1");
+        assertThat(menu.getMenuName()).isEqualTo("renamed");
+        assertThat(menu.getSortNo()).isEqualTo(7);
+        assertThat(menu.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void reloadReturnsTheUpdatedRow() {
+        Menu loaded = entityManager.find(Menu.class, "M1");
+
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        Menu menu = partialUpdates.of(Menu.class, "M1")
+            .set("menuName", "renamed")
+            .executeAndReload()
+            .orElseThrow();
+
+        // The UPDATE and one SELECT refreshing the instance loaded before it
+        assertThat(stats.statements()).isEqualTo(2);
+        assertThat(menu).isSameAs(loaded);
+        assertThat(menu.getMenuName()).isEqualTo("renamed");
+        assertThat(menu.getVersion()).isEqualTo(1L);
+
+        entityManager.clear();
+        Menu reloaded = partialUpdates.of(Menu.class, "M1").set("sortNo", 3).executeAndReload().orElseThrow();
+        assertThat(reloaded.getSortNo()).isEqualTo(3);
+        assertThat(reloaded.getVersion()).isEqualTo(2L);
+        assertThat(partialUpdates.of(Menu.class, "nope").set("sortNo", 1).executeAndReload()).isEmpty();
+    }
+
+    @Test
+    void staleVersionIsRejected() {
+        partialUpdates.of(Menu.class, "M1").set("sortNo", 1).execute();
+
+        assertThatThrownBy(() -> partialUpdates.of(Menu.class, "M1")
+            .set("menuName", "lost update")
+            .expectVersion(0L)
+            .execute())
+            .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(entityManager.find(Menu.class, "M1").getMenuName()).isEqualTo("menu");
+    }
+
+    @Test
+    void missingRowIsReported() {
+        assertThat(partialUpdates.of(Menu.class, "nope").set("sortNo", 1).execute()).isFalse();
+        assertThat(partialUpdates.of(Menu.class, "nope").set("sortNo", 1).expectVersion(3L).execute()).isFalse();
+    }
+}
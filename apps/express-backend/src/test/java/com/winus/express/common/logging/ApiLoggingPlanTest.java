@@ -0,0 +1,47 @@
+package com.winus.express.common.logging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiLoggingPlanTest {
+
+    @Test
+    void binaryBodiesAreNotCaptured() throws Exception {
+        assertThat(plan("payload").captureResponse()).isFalse();
+        assertThat(plan("rawPayload").captureResponse()).isFalse();
+        assertThat(plan("list").captureResponse()).isTrue();
+        assertThat(plan("entity").captureResponse()).isTrue();
+    }
+
+    private static ApiLoggingPlan plan(String methodName) throws NoSuchMethodException {
+        Method method = Handlers.class.getDeclaredMethod(methodName);
+        return ApiLoggingPlan.of(null, "Handlers." + methodName, method.getParameterTypes(),
+            method.getGenericReturnType(), Set.of(), 1.0);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handlers {
+
+        ResponseEntity<byte[]> payload() {
+            return null;
+        }
+
+        byte[] rawPayload() {
+            return null;
+        }
+
+        List<String> list() {
+            return null;
+        }
+
+        ResponseEntity<List<String>> entity() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.winus.express.common.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void allowsBurstUpToRateThenRefills() {
+        TokenBucket bucket = new TokenBucket(5, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(0)).isTrue();
+        }
+        assertThat(bucket.tryAcquire(0)).isFalse();
+        assertThat(bucket.tryAcquire(199 * MILLI)).isFalse();
+        assertThat(bucket.tryAcquire(200 * MILLI)).isTrue();
+        assertThat(bucket.tryAcquire(200 * MILLI)).isFalse();
+    }
+
+    @Test
+    void idleTimeDoesNotAccumulateBeyondBurst() {
+        TokenBucket bucket = new TokenBucket(2, 0);
+
+        long later = 10_000 * MILLI;
+        assertThat(bucket.tryAcquire(later)).isTrue();
+        assertThat(bucket.tryAcquire(later)).isTrue();
+        assertThat(bucket.tryAcquire(later)).isFalse();
+    }
+}
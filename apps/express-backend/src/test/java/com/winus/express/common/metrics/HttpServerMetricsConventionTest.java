@@ -0,0 +1,58 @@
+package com.winus.express.common.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpServerMetricsConventionTest {
+
+    /** Binds the convention against the shipped application.yml, so the configured roles are the real ones */
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+        .withInitializer(context -> {
+            try {
+                new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                    .forEach(context.getEnvironment().getPropertySources()::addLast);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        })
+        .withUserConfiguration(HttpServerMetricsConvention.class);
+
+    @Test
+    void callersAreTaggedWithTheFirstConfiguredRoleTheyHold() {
+        runner.run(context -> {
+            HttpServerMetricsConvention convention = context.getBean(HttpServerMetricsConvention.class);
+
+            assertThat(role(convention, List.of("ROLE_USER"))).isEqualTo("USER");
+            assertThat(role(convention, List.of("ROLE_USER", "ROLE_ADMIN"))).isEqualTo("ADMIN");
+            assertThat(role(convention, List.of("ROLE_AUDITOR"))).isEqualTo("other");
+            assertThat(role(convention, null)).isEqualTo("anonymous");
+        });
+    }
+
+    private static String role(HttpServerMetricsConvention convention, List<String> authorities) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/info");
+        if (authorities != null) {
+            request.setAttribute(HttpServerMetricsConvention.AUTHORITIES_ATTRIBUTE,
+                authorities.stream().map(SimpleGrantedAuthority::new).toList());
+        }
+        ServerRequestObservationContext context =
+            new ServerRequestObservationContext(request, new MockHttpServletResponse());
+        return convention.getLowCardinalityKeyValues(context).stream()
+            .filter(keyValue -> keyValue.getKey().equals("role"))
+            .findFirst()
+            .orElseThrow()
+            .getValue();
+    }
+}
@@ -0,0 +1,110 @@
+package com.winus.express.common.sql;
+
+import com.winus.express.common.config.SqlMonitorProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryDataSourceTest {
+
+    @Test
+    void recordsRowsOfSlowQueriesReadThroughEitherExecuteStyle() throws SQLException {
+        SlowQueryJournal journal = journal(Duration.ZERO);
+        SlowQueryDataSource dataSource = dataSource("slow", journal);
+
+        try (Connection connection = dataSource.getConnection()) {
+            createTable(connection);
+            journal.clear();
+
+            try (PreparedStatement statement = connection.prepareStatement("SELECT ID FROM T WHERE ID > ?")) {
+                statement.setInt(1, 0);
+                readAll(statement.executeQuery());
+                statement.setInt(1, 1);
+                statement.execute();
+                readAll(statement.getResultSet());
+            }
+        }
+
+        assertThat(journal.snapshot()).hasSize(2)
+            .allSatisfy(query -> {
+                assertThat(query.fingerprint()).startsWith("SELECT ID FROM T WHERE ID >");
+                assertThat(query.parameters()).isEqualTo("[int]");
+            })
+            .extracting(SlowQuery::rows).containsExactlyInAnyOrder(3L, 2L);
+    }
+
+    @Test
+    void recordsTheJavaTypesTheParametersWereBoundWith() throws SQLException {
+        SlowQueryJournal journal = journal(Duration.ZERO);
+        SlowQueryDataSource dataSource = dataSource("types", journal);
+
+        try (Connection connection = dataSource.getConnection()) {
+            createTable(connection);
+            journal.clear();
+
+            String sql = "SELECT ID FROM T WHERE ID > ? OR ID = ? OR CAST(ID AS VARCHAR) = ?";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, 1L);
+                statement.setNull(2, Types.INTEGER);
+                statement.setObject(3, "2");
+                readAll(statement.executeQuery());
+            }
+        }
+
+        assertThat(journal.snapshot()).singleElement()
+            .extracting(SlowQuery::parameters).isEqualTo("[long, null, String]");
+    }
+
+    @Test
+    void fastStatementsLeaveNothingBehindAndUnwrapToTheDriver() throws SQLException {
+        SlowQueryJournal journal = journal(Duration.ofMinutes(1));
+        SlowQueryDataSource dataSource = dataSource("fast", journal);
+
+        try (Connection connection = dataSource.getConnection()) {
+            createTable(connection);
+            try (PreparedStatement statement = connection.prepareStatement("SELECT ID FROM T")) {
+                ResultSet resultSet = statement.executeQuery();
+                assertThat(resultSet.getClass().getName()).startsWith("org.h2.");
+                assertThat(statement.getConnection()).isSameAs(connection);
+                assertThat(statement.unwrap(PreparedStatement.class).getClass().getName()).startsWith("org.h2.");
+            }
+        }
+
+        assertThat(journal.snapshot()).isEmpty();
+    }
+
+    private static void createTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE T (ID INT)");
+            assertThat(statement.executeUpdate("INSERT INTO T VALUES (1), (2), (3)")).isEqualTo(3);
+        }
+    }
+
+    private static void readAll(ResultSet resultSet) throws SQLException {
+        try (resultSet) {
+            while (resultSet.next()) {
+                resultSet.getInt(1);
+            }
+        }
+    }
+
+    private static SlowQueryDataSource dataSource(String name, SlowQueryJournal journal) {
+        return new SlowQueryDataSource(new DriverManagerDataSource("jdbc:h2:mem:" + name), journal);
+    }
+
+    private static SlowQueryJournal journal(Duration threshold) {
+        SqlMonitorProperties properties = new SqlMonitorProperties();
+        properties.getSlowQuery().setThreshold(threshold);
+        return new SlowQueryJournal(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,54 @@
+package com.winus.express.common.sql;
+
+import com.winus.express.common.config.SqlMonitorProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryJournalTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void overwritesOldestEntriesWhenFull() {
+        SlowQueryJournal journal = journal(4);
+
+        for (int i = 0; i < 6; i++) {
+            journal.record(query(i, "select " + i, MILLI));
+        }
+
+        assertThat(journal.capacity()).isEqualTo(4);
+        assertThat(journal.recorded()).isEqualTo(6);
+        assertThat(journal.snapshot()).extracting(SlowQuery::fingerprint)
+            .containsExactly("select 5", "select 4", "select 3", "select 2");
+    }
+
+    @Test
+    void ranksFingerprintsByTotalAndP99() {
+        SlowQueryJournal journal = journal(16);
+        for (int i = 0; i < 5; i++) {
+            journal.record(query(i, "frequent", 100 * MILLI));
+        }
+        journal.record(query(5, "rare", 300 * MILLI));
+
+        List<SlowQueryJournal.FingerprintStats> byTotal = journal.top(10, SlowQueryJournal.FingerprintStats.BY_TOTAL);
+        List<SlowQueryJournal.FingerprintStats> byP99 = journal.top(10, SlowQueryJournal.FingerprintStats.BY_P99);
+
+        assertThat(byTotal).extracting(SlowQueryJournal.FingerprintStats::fingerprint).containsExactly("frequent", "rare");
+        assertThat(byTotal.get(0).totalMillis()).isEqualTo(500.0);
+        assertThat(byP99).extracting(SlowQueryJournal.FingerprintStats::fingerprint).containsExactly("rare", "frequent");
+    }
+
+    private static SlowQueryJournal journal(int capacity) {
+        SqlMonitorProperties properties = new SqlMonitorProperties();
+        properties.getSlowQuery().setCapacity(capacity);
+        return new SlowQueryJournal(properties, new SimpleMeterRegistry());
+    }
+
+    private static SlowQuery query(long timestamp, String fingerprint, long durationNanos) {
+        return new SlowQuery(timestamp, fingerprint, "[]", 1, durationNanos, "UserController.getUsers");
+    }
+}
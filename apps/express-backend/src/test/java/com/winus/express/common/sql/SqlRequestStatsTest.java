@@ -0,0 +1,33 @@
+package com.winus.express.common.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlRequestStatsTest {
+
+    @Test
+    void fingerprintIgnoresCommentsLiteralsAndInListLength() {
+        String a = SqlRequestStats.fingerprint(
+            "/* <criteria> */ select r1_0.role_id from tb_role r1_0 where r1_0.role_id in (?, ?, ?) and r1_0.status='1'");
+        String b = SqlRequestStats.fingerprint(
+            "select r1_0.role_id\n  from tb_role r1_0 where r1_0.role_id in (?) and r1_0.status='0'");
+
+        assertThat(a).isEqualTo(b)
+            .isEqualTo("select r1_0.role_id from tb_role r1_0 where r1_0.role_id in (?) and r1_0.status=?");
+    }
+
+    @Test
+    void tracksMostRepeatedStatementShape() {
+        SqlRequestStats stats = new SqlRequestStats(10);
+
+        stats.recordStatement("select * from tb_user where user_id=?");
+        for (int i = 0; i < 3; i++) {
+            stats.recordStatement("select * from tb_role_menu where role_id=" + i);
+        }
+
+        assertThat(stats.statements()).isEqualTo(4);
+        assertThat(stats.maxRepeats()).isEqualTo(3);
+        assertThat(stats.mostRepeated()).isEqualTo("select * from tb_role_menu where role_id=?");
+    }
+}
@@ -0,0 +1,67 @@
+package com.winus.express.common.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void verifiesEachTokenOnceAndServesRepeatsFromTheCache() {
+        JwtUtil jwtUtil = jwtUtil(60_000, 100);
+        String token = jwtUtil.generateAccessToken("u1");
+
+        assertThat(jwtUtil.verifyToken(token))
+            .hasValueSatisfying(claims -> assertThat(claims.userId()).isEqualTo("u1"));
+        assertThat(jwtUtil.verifyToken(token)).isPresent();
+
+        assertThat(count("verified")).isEqualTo(1);
+        assertThat(count("cache_hit")).isEqualTo(1);
+    }
+
+    @Test
+    void evictedTokensAreVerifiedAgain() {
+        JwtUtil jwtUtil = jwtUtil(60_000, 1);
+        String first = jwtUtil.generateAccessToken("u1");
+        String second = jwtUtil.generateAccessToken("u2");
+
+        jwtUtil.verifyToken(first);
+        jwtUtil.verifyToken(second);
+        assertThat(jwtUtil.verifyToken(first)).isPresent();
+
+        assertThat(count("verified")).isEqualTo(3);
+        assertThat(count("cache_hit")).isZero();
+    }
+
+    @Test
+    void rejectsExpiredAndTamperedTokens() {
+        JwtUtil expiring = jwtUtil(-1_000, 100);
+        assertThat(expiring.verifyToken(expiring.generateAccessToken("u1"))).isEmpty();
+        assertThat(count("expired")).isEqualTo(1);
+
+        JwtUtil jwtUtil = jwtUtil(60_000, 100);
+        String token = jwtUtil.generateAccessToken("u1");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThat(jwtUtil.verifyToken(tampered)).isEmpty();
+        assertThat(count("invalid")).isEqualTo(1);
+        assertThat(count("verified")).isZero();
+    }
+
+    private JwtUtil jwtUtil(long accessTokenExpiration, int verifiedCacheSize) {
+        JwtUtil jwtUtil = new JwtUtil(meterRegistry);
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "test-jwt-secret-key-with-at-least-256-bits");
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", accessTokenExpiration);
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", 600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", verifiedCacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("jwt.verification").tag("result", result).counter().count();
+    }
+}
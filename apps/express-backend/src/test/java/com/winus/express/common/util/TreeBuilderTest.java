@@ -0,0 +1,73 @@
+package com.winus.express.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TreeBuilderTest {
+
+    @Test
+    void keepsInputOrderAndSortsUnsortedInputOnce() {
+        List<Node> sorted = build(List.of(
+            row("1", "0", 1), row("11", "1", 1), row("2", null, 2), row("12", "1", 2)), 10);
+        List<Node> unsorted = build(List.of(
+            row("2", null, 2), row("12", "1", 2), row("1", "0", 1), row("11", "1", 1)), 10);
+
+        List<Node> siblingsSorted = build(List.of(
+            row("1", "0", 1), row("11", "1", 5), row("2", null, 2), row("12", "1", 6)), 10);
+
+        assertThat(sorted).isEqualTo(unsorted).isEqualTo(siblingsSorted);
+        assertThat(sorted).extracting(Node::id).containsExactly("1", "2");
+        assertThat(sorted.get(0).children()).extracting(Node::id).containsExactly("11", "12");
+    }
+
+    @Test
+    void dropsOrphansAndCyclesAndAttachesChildrenOnce() {
+        List<Node> roots = build(List.of(
+            row("1", "0", 1), row("1", "0", 2), row("11", "1", 1), row("a", "b", 1), row("b", "a", 1),
+            row("self", "self", 1), row("orphan", "missing", 1)), 10);
+
+        assertThat(roots).containsExactly(
+            new Node("1", List.of(new Node("11", List.of()))),
+            new Node("1", List.of()));
+    }
+
+    @Test
+    void cutsOffLevelsBeyondTheDepthLimitWithoutRecursing() {
+        List<Row> chain = new ArrayList<>();
+        chain.add(row("0-root", "0", 0));
+        for (int i = 1; i < 200_000; i++) {
+            chain.add(row(String.valueOf(i), i == 1 ? "0-root" : String.valueOf(i - 1), 0));
+        }
+
+        assertThat(depth(build(chain, 3))).isEqualTo(3);
+        assertThat(depth(build(chain, Integer.MAX_VALUE))).isEqualTo(200_000);
+    }
+
+    private static int depth(List<Node> roots) {
+        int depth = 0;
+        while (!roots.isEmpty()) {
+            depth++;
+            roots = roots.get(0).children();
+        }
+        return depth;
+    }
+
+    private static List<Node> build(List<Row> rows, int maxDepth) {
+        return TreeBuilder.build(rows, Row::id, Row::parentId, Row::sortNo,
+            (row, children) -> new Node(row.id(), children), maxDepth);
+    }
+
+    private static Row row(String id, String parentId, int sortNo) {
+        return new Row(id, parentId, sortNo);
+    }
+
+    private record Row(String id, String parentId, int sortNo) {
+    }
+
+    private record Node(String id, List<Node> children) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.winus.express.modules.system;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.winus.express.common.sql.SqlRequestStats;
+import com.winus.express.common.sql.SqlStatementTracker;
+import com.winus.express.modules.system.department.entity.Department;
+import com.winus.express.modules.system.menu.entity.Menu;
+import com.winus.express.modules.system.role.entity.Role;
+import com.winus.express.modules.system.role.repository.RoleRepository;
+import com.winus.express.modules.system.user.entity.User;
+import com.winus.express.modules.system.user.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts for serializing list pages, the way the controllers do with open-in-view.
+ * The second-level cache is off so every association load reaches the database.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+class ListFetchPlanTest {
+
+    private static final int USERS = 150;
+    private static final int PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void insertUsers() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Menu> menus = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Menu menu = new Menu("M" + i, "menu " + i, "C");
+            menu.setParentId(null);
+            menu.setCreateTime(now);
+            menus.add(entityManager.persist(menu));
+        }
+        List<Role> roles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Role role = new Role("R" + i, "role " + i, "CODE_" + i);
+            role.setCreateTime(now);
+            role.getMenus().add(menus.get(i % menus.size()));
+            roles.add(entityManager.persist(role));
+        }
+        for (int i = 0; i < 10; i++) {
+            Department department = new Department("D" + i, "dept " + i);
+            department.setDeptId("DEPT" + i);
+            department.setParentCode(i == 0 ? null : "D0");
+            department.setCreateTime(now);
+            entityManager.persist(department);
+            entityManager.flush();
+        }
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("U" + i, "user" + i, "secret");
+            user.setDeptCode("D" + i % 10);
+            user.setSortNo(i);
+            user.setCreateTime(now);
+            user.getRoles().add(roles.get(i % roles.size()));
+            user.getRoles().add(roles.get((i + 1) % roles.size()));
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void endTracking() {
+        SqlStatementTracker.end();
+    }
+
+    @Test
+    void userPageLoadsRolesAndDepartmentsWithoutPerRowQueries() throws Exception {
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        Page<User> page = userRepository.findByStatusAndDelFlag("1", "0", PageRequest.of(0, PAGE_SIZE));
+        JsonNode json = objectMapper.valueToTree(page.getContent());
+
+        // Page with the department joined, count, one batch for all roles
+        assertThat(stats.statements()).isEqualTo(3);
+        assertThat(stats.maxRepeats()).isEqualTo(1);
+        assertThat(json).hasSize(PAGE_SIZE);
+        assertThat(json.get(0).get("roles")).hasSize(2);
+        assertThat(json.get(0).get("department").get("deptCode").asText()).isEqualTo("D0");
+    }
+
+    @Test
+    void rolePageLoadsMenusWithoutPerRowQueriesAndLeavesUsersOut() throws Exception {
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        Page<Role> page = roleRepository.findByDelFlag("0", PageRequest.of(0, PAGE_SIZE));
+        JsonNode json = objectMapper.valueToTree(page.getContent());
+
+        // Page, one batch for all menus; users are not serialized
+        assertThat(stats.statements()).isEqualTo(2);
+        assertThat(stats.maxRepeats()).isEqualTo(1);
+        assertThat(json).hasSize(5);
+        assertThat(json.get(0).has("users")).isFalse();
+        assertThat(json.get(0).get("menus")).hasSize(1);
+    }
+
+    @Test
+    void userDetailJoinsRolesAndDepartment() {
+        SqlRequestStats stats = SqlStatementTracker.begin(10);
+        User user = userRepository.findWithRolesAndDepartmentByUserId("U1").orElseThrow();
+        JsonNode json = objectMapper.valueToTree(user);
+
+        // The user with roles and department, then the department's parent by its unique code
+        assertThat(stats.statements()).isEqualTo(2);
+        assertThat(json.get("roles")).hasSize(2);
+        assertThat(json.get("department").get("deptName").asText()).isEqualTo("dept 1");
+    }
+}
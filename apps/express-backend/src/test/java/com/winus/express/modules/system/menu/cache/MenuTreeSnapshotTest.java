@@ -0,0 +1,44 @@
+package com.winus.express.modules.system.menu.cache;
+
+import com.winus.express.modules.system.menu.dto.MenuNode;
+import com.winus.express.modules.system.menu.entity.Menu;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuTreeSnapshotTest {
+
+    @Test
+    void buildsSortedTreeFromFlatList() {
+        MenuTreeSnapshot snapshot = MenuTreeSnapshot.build(3, List.of(
+            menu("2", "0", 2),
+            menu("1", "0", 1),
+            menu("12", "1", 2),
+            menu("11", "1", 1),
+            menu("99", "missing", 1)));
+
+        assertThat(snapshot.version()).isEqualTo(3);
+        assertThat(snapshot.roots()).extracting(MenuNode::menuId).containsExactly("1", "2");
+        assertThat(snapshot.roots().get(0).children()).extracting(MenuNode::menuId).containsExactly("11", "12");
+        assertThat(snapshot.roots().get(1).children()).isEmpty();
+    }
+
+    @Test
+    void ignoresParentCycles() {
+        MenuTreeSnapshot snapshot = MenuTreeSnapshot.build(1, List.of(
+            menu("1", "0", 1),
+            menu("a", "b", 1),
+            menu("b", "a", 1)));
+
+        assertThat(snapshot.roots()).extracting(MenuNode::menuId).containsExactly("1");
+    }
+
+    private static Menu menu(String id, String parentId, int sortNo) {
+        Menu menu = new Menu(id, "menu-" + id, "C");
+        menu.setParentId(parentId);
+        menu.setSortNo(sortNo);
+        return menu;
+    }
+}
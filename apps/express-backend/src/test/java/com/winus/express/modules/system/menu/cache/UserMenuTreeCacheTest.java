@@ -0,0 +1,42 @@
+package com.winus.express.modules.system.menu.cache;
+
+import com.winus.express.modules.system.menu.dto.MenuNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserMenuTreeCacheTest {
+
+    @Test
+    void signatureIsOrderIndependentAndIgnoresNonRoleAuthorities() {
+        String a = UserMenuTreeCache.signature(List.of(
+            new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String b = UserMenuTreeCache.signature(List.of(
+            new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("system:user:list"),
+            new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        assertThat(a).isEqualTo(b).isEqualTo("ADMIN,USER");
+    }
+
+    @Test
+    void keepsOnlyGrantedVisibleNodesReachableThroughGrantedParents() {
+        List<MenuNode> roots = List.of(
+            node("1", "1", node("11", "1"), node("12", "0")),
+            node("2", "1", node("21", "1")),
+            node("3", "1"));
+
+        List<MenuNode> tree = UserMenuTreeCache.filter(roots, Set.of("1", "11", "12", "21", "3"));
+
+        assertThat(tree).extracting(MenuNode::menuId).containsExactly("1", "3");
+        assertThat(tree.get(0).children()).extracting(MenuNode::menuId).containsExactly("11");
+    }
+
+    private static MenuNode node(String id, String visible, MenuNode... children) {
+        return new MenuNode(id, null, "menu-" + id, null, null, "C", null, null, 0, visible, "1", "0", "1", null,
+            List.of(children));
+    }
+}
@@ -0,0 +1,67 @@
+package com.winus.express.security.login;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class LoginAttemptLimiterTest {
+
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new LoginAttemptLimiter(mock(StringRedisTemplate.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "maxAttempts", 5);
+        ReflectionTestUtils.setField(limiter, "windowMillis", 300_000L);
+        ReflectionTestUtils.setField(limiter, "ipMaxAttempts", 50);
+        ReflectionTestUtils.setField(limiter, "slotCount", 10);
+        ReflectionTestUtils.setField(limiter, "maxTrackedKeys", 1000);
+        ReflectionTestUtils.setField(limiter, "store", "local");
+        limiter.init();
+    }
+
+    @Test
+    void concurrentBurstPassesOnlyUpToTheLimit() throws Exception {
+        Callable<Boolean> login = () -> limiter.reserve("admin", "10.0.0.1").blocked();
+        List<Callable<Boolean>> burst = IntStream.range(0, 40).mapToObj(i -> login).toList();
+
+        int admitted = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (Future<Boolean> blocked : executor.invokeAll(burst)) {
+                admitted += blocked.get() ? 0 : 1;
+            }
+        }
+
+        assertThat(admitted).isEqualTo(5);
+    }
+
+    @Test
+    void releasedAndSuccessfulAttemptsDoNotCount() {
+        for (int i = 0; i < 10; i++) {
+            limiter.release(limiter.reserve("admin", "10.0.0.1"));
+        }
+        assertThat(limiter.reserve("admin", "10.0.0.1").blocked()).isFalse();
+
+        for (int i = 0; i < 3; i++) {
+            limiter.reserve("admin", "10.0.0.1");
+        }
+        limiter.recordSuccess(limiter.reserve("admin", "10.0.0.1"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.reserve("admin", "10.0.0.1").blocked()).isFalse();
+        }
+        assertThat(limiter.reserve("admin", "10.0.0.1").blocked()).isTrue();
+    }
+}
@@ -0,0 +1,51 @@
+package com.winus.express.security.login;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    @Test
+    void countsEventsWithinTheWindowOnly() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(5, 1000);
+
+        counter.increment(10_000);
+        counter.increment(10_500);
+        counter.increment(12_000);
+
+        assertThat(counter.count(12_000)).isEqualTo(3);
+        assertThat(counter.count(14_999)).isEqualTo(3);
+        assertThat(counter.count(15_000)).isEqualTo(1);
+        assertThat(counter.count(17_000)).isZero();
+    }
+
+    @Test
+    void reusesExpiredSlots() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(5, 1000);
+
+        counter.increment(10_000);
+        counter.increment(10_000);
+
+        assertThat(counter.increment(15_000)).isEqualTo(1);
+        assertThat(counter.isIdle(15_000)).isFalse();
+        assertThat(counter.isIdle(20_000)).isTrue();
+    }
+
+    @Test
+    void decrementTakesBackAnEventOfItsOwnSlotOnly() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(5, 1000);
+
+        counter.increment(10_000);
+        counter.increment(11_000);
+        counter.decrement(11_500);
+        assertThat(counter.count(11_500)).isEqualTo(1);
+
+        counter.decrement(11_000);
+        assertThat(counter.count(11_500)).isEqualTo(1);
+
+        counter.increment(16_000);
+        counter.decrement(11_000);
+        assertThat(counter.count(16_000)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.winus.express.security.password;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CostAwareBCryptPasswordEncoderTest {
+
+    private final PasswordEncoder target = new CostAwareBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradesHashesWithAnyOtherCost() {
+        assertThat(target.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(target.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+        assertThat(target.upgradeEncoding(target.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void upgradesLegacyHashesWithoutAlgorithmPrefix() {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", target));
+        delegating.setDefaultPasswordEncoderForMatches(target);
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+
+        assertThat(delegating.matches("secret", legacy)).isTrue();
+        assertThat(delegating.upgradeEncoding(legacy)).isTrue();
+
+        String current = delegating.encode("secret");
+        assertThat(current).startsWith("{bcrypt}$2a$05$");
+        assertThat(delegating.upgradeEncoding(current)).isFalse();
+    }
+
+    @Test
+    void parsesAlgorithmAndCost() {
+        assertThat(PasswordHashInfo.parse("{bcrypt}$2a$12$abcdefghijklmnopqrstuv"))
+            .isEqualTo(new PasswordHashInfo("bcrypt", 12));
+        assertThat(PasswordHashInfo.parse("$2b$10$abcdefghijklmnopqrstuv"))
+            .isEqualTo(new PasswordHashInfo("legacy-bcrypt", 10));
+        assertThat(PasswordHashInfo.parse("plain").cost()).isEqualTo(-1);
+    }
+}
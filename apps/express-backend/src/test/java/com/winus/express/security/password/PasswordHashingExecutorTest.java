@@ -0,0 +1,50 @@
+package com.winus.express.security.password;
+
+import com.winus.express.common.config.PasswordProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void callerStopsWaitingAfterQueueAndHashTimeouts() {
+        PasswordProperties properties = new PasswordProperties();
+        properties.getHashing().setMaxConcurrency(1);
+        properties.getHashing().setQueueTimeout(Duration.ofMillis(50));
+        properties.getHashing().setHashTimeout(Duration.ofMillis(100));
+        executor = new PasswordHashingExecutor(properties, new SimpleMeterRegistry());
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> executor.execute("encode", () -> {
+            awaitRelease();
+            return "hash";
+        })).isInstanceOf(PasswordHashingRejectedException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.winus.express.security.permission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RolePermissionIndexTest {
+
+    private static final List<GrantedAuthority> ADMIN_AND_USER = List.of(
+        new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"));
+
+    @Test
+    void unionsRolePermissionsWithoutDuplicates() {
+        RolePermissionIndex index = RolePermissionIndex.build(1, Map.of(
+            "admin", List.of("system:user:list", "system:user:edit", ""),
+            "USER", List.of("system:user:list", "system:menu:list")));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.permissions(ADMIN_AND_USER))
+            .containsExactlyInAnyOrder("system:user:list", "system:user:edit", "system:menu:list");
+        assertThat(index.permissions(List.of(new SimpleGrantedAuthority("system:user:list")))).isEmpty();
+        assertThat(index.hasPermission(List.of(new SimpleGrantedAuthority("ROLE_USER")), "system:user:edit")).isFalse();
+        assertThat(index.hasPermission(ADMIN_AND_USER, "system:user:edit")).isTrue();
+    }
+
+    @Test
+    void replacingOneRoleLeavesTheOriginalAndOtherRolesUntouched() {
+        RolePermissionIndex before = RolePermissionIndex.build(1, Map.of(
+            "ADMIN", List.of("a"),
+            "USER", List.of("b")));
+        List<String> many = new ArrayList<>();
+        IntStream.range(0, 130).forEach(i -> many.add("p" + i));
+
+        RolePermissionIndex after = before.withRole(2, "admin", many);
+
+        assertThat(after.generation()).isEqualTo(2);
+        assertThat(after.permissions(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))).hasSize(130).contains("p129");
+        assertThat(after.permissions(List.of(new SimpleGrantedAuthority("ROLE_USER")))).containsExactly("b");
+        assertThat(after.hasPermission(ADMIN_AND_USER, "a")).isFalse();
+        assertThat(before.permissions(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))).containsExactly("a");
+        assertThat(before.hasPermission(ADMIN_AND_USER, "p129")).isFalse();
+    }
+}
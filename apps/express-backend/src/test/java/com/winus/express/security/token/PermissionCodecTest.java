@@ -0,0 +1,41 @@
+package com.winus.express.security.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionCodecTest {
+
+    @Test
+    void roundTripsGroupedCodes() {
+        List<String> permissions = List.of("system:user:list", "system:user:add", "system:role:list", "dashboard");
+
+        String encoded = PermissionCodec.encode(permissions);
+
+        assertThat(encoded).isEqualTo("dashboard;system:role:list;system:user:add,list");
+        assertThat(PermissionCodec.decode(encoded)).containsExactlyInAnyOrderElementsOf(permissions);
+    }
+
+    @Test
+    void refusesCodesContainingSeparators() {
+        assertThat(PermissionCodec.encode(List.of("system:user:list", "a,b"))).isNull();
+    }
+
+    @Test
+    void compressesLargePermissionSets() {
+        List<String> permissions = new ArrayList<>();
+        for (int module = 0; module < 50; module++) {
+            for (String action : List.of("list", "query", "add", "edit", "remove", "export")) {
+                permissions.add("system:module" + module + ":" + action);
+            }
+        }
+
+        String encoded = PermissionCodec.encode(permissions);
+
+        assertThat(PermissionCodec.decode(encoded)).containsExactlyInAnyOrderElementsOf(permissions);
+        assertThat(encoded.length()).isLessThan(String.join(",", permissions).length() / 2);
+    }
+}
@@ -0,0 +1,92 @@
+package com.winus.express.security.token;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PermissionVersionServiceTest {
+
+    private static final String USER_ID = "u1";
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> values = mock(ValueOperations.class);
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hashes = mock(HashOperations.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private PermissionVersionService versions;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashes);
+        versions = new PermissionVersionService(redisTemplate, mock(RedisMessageListenerContainer.class));
+        // Read through to Redis on every check
+        ReflectionTestUtils.setField(versions, "localTtl", Duration.ZERO);
+    }
+
+    @Test
+    void stampIssuedBeforeLostCountersNeverBecomesCurrentAgain() {
+        when(values.get(PermissionVersionService.EPOCH_KEY)).thenReturn("2");
+        when(hashes.get(PermissionVersionService.USER_VERSIONS_KEY, USER_ID)).thenReturn("3");
+        String issued = versions.currentStamp(USER_ID);
+        assertThat(issued).isEqualTo("2.3");
+
+        when(values.get(PermissionVersionService.EPOCH_KEY)).thenReturn(null);
+        when(hashes.get(PermissionVersionService.USER_VERSIONS_KEY, USER_ID)).thenReturn(null);
+
+        assertThat(versions.currentStamp(USER_ID)).isEqualTo("3.4");
+        verify(values).set(PermissionVersionService.EPOCH_KEY, "3");
+        verify(hashes).put(PermissionVersionService.USER_VERSIONS_KEY, USER_ID, "4");
+
+        // Counters climbing back to their old values do not revive the old stamp
+        when(values.get(PermissionVersionService.EPOCH_KEY)).thenReturn("3");
+        when(hashes.get(PermissionVersionService.USER_VERSIONS_KEY, USER_ID)).thenReturn("4");
+        assertThat(versions.isCurrent(USER_ID, issued)).isFalse();
+    }
+
+    @Test
+    void bumpAfterLostCounterMovesPastTheMirror() {
+        when(hashes.get(PermissionVersionService.USER_VERSIONS_KEY, USER_ID)).thenReturn("7");
+        when(values.get(PermissionVersionService.EPOCH_KEY)).thenReturn("0");
+        versions.currentStamp(USER_ID);
+        when(hashes.increment(PermissionVersionService.USER_VERSIONS_KEY, USER_ID, 1)).thenReturn(1L);
+
+        versions.bumpUsers(List.of(USER_ID));
+
+        verify(hashes).put(PermissionVersionService.USER_VERSIONS_KEY, USER_ID, "8");
+        verify(redisTemplate).convertAndSend(PermissionVersionService.CHANNEL, USER_ID + ":8");
+    }
+
+    @Test
+    void noStampIsCurrentWhileABumpHasNotReachedRedis() {
+        when(values.get(PermissionVersionService.EPOCH_KEY)).thenReturn("0");
+        when(hashes.get(PermissionVersionService.USER_VERSIONS_KEY, USER_ID)).thenReturn("0");
+        String issued = versions.currentStamp(USER_ID);
+        when(hashes.increment(PermissionVersionService.USER_VERSIONS_KEY, USER_ID, 1))
+            .thenThrow(new RedisConnectionFailureException("down"))
+            .thenReturn(1L);
+
+        versions.bumpUsers(List.of(USER_ID));
+
+        assertThat(versions.currentStamp(USER_ID)).isNull();
+        assertThat(versions.isCurrent(USER_ID, issued)).isFalse();
+
+        versions.publishPending();
+
+        verify(hashes).put(PermissionVersionService.USER_VERSIONS_KEY, USER_ID, "2");
+        verify(redisTemplate).convertAndSend(PermissionVersionService.CHANNEL, USER_ID + ":2");
+    }
+}
@@ -0,0 +1,65 @@
+package com.winus.express.security.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void returnsClaimsOfCachedTokens() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        JwtClaims claims = claims("u1", Instant.now().plusSeconds(60));
+
+        cache.put("token-1", claims);
+
+        assertThat(cache.get("token-1")).isSameAs(claims);
+        assertThat(cache.get("token-2")).isNull();
+    }
+
+    @Test
+    void dropsEntriesOnceTheTokenExpired() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-1", claims("u1", Instant.now().minusMillis(1)));
+
+        assertThat(cache.get("token-1")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void staysWithinItsBoundAndPrefersEvictingExpiredEntries() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        Instant later = Instant.now().plusSeconds(60);
+        cache.put("expiring", claims("u1", Instant.now().plusMillis(50)));
+        cache.put("live", claims("u2", later));
+        Thread.sleep(100);
+
+        cache.put("new", claims("u3", later));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("live")).isNotNull();
+        assertThat(cache.get("new")).isNotNull();
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, claims("u" + i, later));
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void cachesNothingWhenDisabledOrWithoutExpiry() {
+        VerifiedTokenCache disabled = new VerifiedTokenCache(0);
+        disabled.put("token-1", claims("u1", Instant.now().plusSeconds(60)));
+        assertThat(disabled.get("token-1")).isNull();
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token-1", claims("u1", null));
+        assertThat(cache.size()).isZero();
+    }
+
+    private static JwtClaims claims(String userId, Instant expiresAt) {
+        return new JwtClaims(userId, userId + "-jti", Instant.now(), expiresAt, null, null, null, null, null, null);
+    }
+}
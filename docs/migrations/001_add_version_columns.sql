@@ -0,0 +1,7 @@
+-- 낙관적 잠금용 VERSION 컬럼 추가 (Menu, Role, Department 엔티티의 @Version)
+-- 수정 요청에 version 을 보내면 다른 사용자가 먼저 수정한 경우 409 Conflict 로 거부됩니다.
+-- 기존 행은 0 으로 채워지며, DEFAULT 가 있는 NOT NULL 컬럼 추가는 Oracle 11g 이상에서 메타데이터만 변경합니다.
+
+ALTER TABLE TB_MENU ADD (VERSION NUMBER(10) DEFAULT 0 NOT NULL);
+ALTER TABLE TB_ROLE ADD (VERSION NUMBER(10) DEFAULT 0 NOT NULL);
+ALTER TABLE TB_DEPT ADD (VERSION NUMBER(10) DEFAULT 0 NOT NULL);